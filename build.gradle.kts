@@ -1,13 +1,16 @@
+import groovy.json.JsonSlurper
 import org.gradle.api.file.DuplicatesStrategy
 import org.gradle.api.tasks.bundling.Jar
 import org.gradle.api.tasks.Copy
 import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
 import java.io.IOException
 import java.net.URL
 import java.time.OffsetDateTime
 import java.time.ZoneOffset
 import java.time.format.DateTimeFormatter
 import java.util.concurrent.TimeUnit
+import java.util.zip.CRC32
 plugins {
     java
     `maven-publish`
@@ -137,6 +140,34 @@ java {
     }
 }
 
+// Benchmarks run against the main classes plus lightweight stand-ins for the Hytale server types they touch, so
+// they need neither a server jar nor a running server.
+val jmh: SourceSet by sourceSets.creating {
+    java.srcDir("src/jmh/stubs")
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+dependencies {
+    add(jmh.implementationConfigurationName, libs.jmh.core)
+    add(jmh.annotationProcessorConfigurationName, libs.jmh.generator.annprocess)
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Run the JMH benchmarks with the GC profiler; -Pjmh.include=<regex> selects benchmarks."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+    val include = project.findProperty("jmh.include")?.toString()?.takeIf { it.isNotBlank() }
+    args(listOfNotNull(include) + listOf("-prof", "gc", "-rf", "json", "-rff", resultFile.absolutePath))
+    doFirst {
+        resultFile.parentFile.mkdirs()
+    }
+}
+
 val buildTimestamp = OffsetDateTime.now(ZoneOffset.UTC)
     .format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
 val gitRevision = runCatching {
@@ -178,6 +209,126 @@ tasks.named<Copy>("processResources") {
     inputs.properties(replaceProperties)
 }
 
+val localizationSourceDir = layout.projectDirectory.dir("src/main/resources/localization")
+val compiledLocalizationDir = layout.buildDirectory.dir("generated/compiled-localization")
+val localizationPlaceholders = listOf("player", "killer", "world", "cause", "count")
+
+// Mirrors AnnouncementTemplate.compile: returns the literal segments and the placeholder ordinals between them.
+fun splitLocalizationLine(text: String): Pair<List<String>, List<Int>> {
+    val literals = mutableListOf<String>()
+    val slots = mutableListOf<Int>()
+    val literal = StringBuilder()
+    var index = 0
+    while (index < text.length) {
+        val current = text[index]
+        if (current == '{') {
+            val close = text.indexOf('}', index + 1)
+            val slot = if (close < 0) -1 else localizationPlaceholders.indexOf(text.substring(index + 1, close))
+            if (slot >= 0) {
+                literals.add(literal.toString())
+                literal.setLength(0)
+                slots.add(slot)
+                index = close + 1
+                continue
+            }
+        }
+        literal.append(current)
+        index++
+    }
+    literals.add(literal.toString())
+    return literals to slots
+}
+
+fun compileLocalizationFile(source: File, target: File) {
+    val bytes = source.readBytes()
+    fun fail(message: String): Nothing = throw GradleException("${source.name}: $message")
+    val root = runCatching { JsonSlurper().parseText(String(bytes, Charsets.UTF_8)) }
+        .getOrElse { fail("invalid JSON (${it.message})") } as? Map<*, *> ?: fail("expected a JSON object")
+    val section = root["death-announcer"] as? Map<*, *> ?: fail("missing \"death-announcer\" object")
+    val pools = linkedMapOf<String, List<String>>()
+    section.forEach { (key, value) ->
+        val lines = value as? List<*> ?: fail("\"$key\" must be an array of strings")
+        pools[key.toString()] = lines.mapIndexed { index, line ->
+            val text = line as? String ?: fail("$key[$index] must be a string")
+            if (text.isBlank()) {
+                fail("$key[$index] is blank")
+            }
+            if (text.toByteArray(Charsets.UTF_8).size > 60_000) {
+                fail("$key[$index] is too long")
+            }
+            Regex("\\{([a-z_]+)}").findAll(text).forEach { match ->
+                if (match.groupValues[1] !in localizationPlaceholders) {
+                    fail("$key[$index] uses unknown placeholder {${match.groupValues[1]}}")
+                }
+            }
+            text
+        }
+    }
+    if (pools["generic"].isNullOrEmpty()) {
+        fail("the \"generic\" pool is required")
+    }
+
+    val strings = linkedMapOf<String, Int>()
+    fun intern(value: String) = strings.getOrPut(value) { strings.size }
+    val templateIds = linkedMapOf<String, Int>()
+    val templates = mutableListOf<Triple<Int, List<Int>, List<Int>>>()
+    val poolIds = pools.map { (name, lines) ->
+        intern(name) to lines.map { line ->
+            templateIds.getOrPut(line) {
+                val (literals, slots) = splitLocalizationLine(line)
+                templates.add(Triple(intern(line), literals.map(::intern), slots))
+                templates.size - 1
+            }
+        }
+    }
+
+    val checksum = CRC32().apply { update(bytes) }.value
+    target.parentFile.mkdirs()
+    DataOutputStream(target.outputStream().buffered()).use { output ->
+        output.writeInt(0x444C4F43)
+        output.writeInt(1)
+        output.writeLong(bytes.size.toLong())
+        output.writeLong(checksum)
+        output.writeInt(strings.size)
+        strings.keys.forEach(output::writeUTF)
+        output.writeInt(templates.size)
+        templates.forEach { (sourceId, literalIds, slots) ->
+            output.writeInt(sourceId)
+            output.writeByte(slots.size)
+            literalIds.forEach(output::writeInt)
+            slots.forEach(output::writeByte)
+        }
+        output.writeInt(poolIds.size)
+        poolIds.forEach { (nameId, lineIds) ->
+            output.writeInt(nameId)
+            output.writeInt(lineIds.size)
+            lineIds.forEach(output::writeInt)
+        }
+    }
+}
+
+val compileLocalization = tasks.register("compileLocalization") {
+    group = "build"
+    description = "Validate the localization JSON files and compile them into the binary bundles loaded at runtime."
+    inputs.dir(localizationSourceDir)
+    outputs.dir(compiledLocalizationDir)
+    doLast {
+        val outputDir = compiledLocalizationDir.get().dir("localization").asFile
+        outputDir.deleteRecursively()
+        val sources = localizationSourceDir.asFile.listFiles { file -> file.extension == "json" }.orEmpty()
+        sources.sortedBy { it.name }.forEach { source ->
+            compileLocalizationFile(source, File(outputDir, source.nameWithoutExtension + ".bin"))
+        }
+        logger.lifecycle("Compiled {} localization files", sources.size)
+    }
+}
+
+sourceSets {
+    main {
+        resources.srcDir(compileLocalization)
+    }
+}
+
 tasks.withType<Jar> {
     manifest {
         attributes["Specification-Title"] = rootProject.name
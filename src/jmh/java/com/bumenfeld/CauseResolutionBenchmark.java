@@ -0,0 +1,59 @@
+package com.bumenfeld;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a damage cause id to its category and icons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CauseResolutionBenchmark {
+    private static final List<String> CAUSES = List.of("fall", "projectile", "drowning", "lava", "physical",
+        "out_of_world", "suffocation", "environment", "poison", "command");
+
+    private CauseTable causeTable;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        causeTable = CauseTable.build(CAUSES);
+    }
+
+    @Benchmark
+    public String resolveCategory() {
+        return CauseTable.resolveCategory(nextCause());
+    }
+
+    @Benchmark
+    public String resolveKnownCauseIcon() {
+        return causeTable.resolve(nextCause()).hudTexturePath();
+    }
+
+    @Benchmark
+    public String resolveUnknownCauseIcon() {
+        return causeTable.resolve("modded_" + nextCause()).hudTexturePath();
+    }
+
+    private String nextCause() {
+        String cause = CAUSES.get(next);
+        next = next + 1 == CAUSES.size() ? 0 : next + 1;
+        return cause;
+    }
+}
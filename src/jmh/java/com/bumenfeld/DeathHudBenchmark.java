@@ -0,0 +1,56 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done for a death HUD: rendering the shared payload once per language, then for every spectator either mounting
+ * a HUD bound to that payload or patching the properties of a HUD that is still mounted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeathHudBenchmark {
+    private static final DeathHudPayload[] PAYLOADS = {
+        DeathHudPayload.of("death_notification.ui", "RIP Steve", "Steve was shot by Skeleton.", "Icons/projectile.png"),
+        DeathHudPayload.of("death_notification.ui", "RIP Steve", "Alex tried to swim in lava.", "Icons/projectile.png")
+    };
+
+    private final PlayerRef spectator = new PlayerRef(UUID.randomUUID(), "en");
+    private final DeathNotificationHud mounted = new DeathNotificationHud(spectator, PAYLOADS[0]);
+    private int deaths;
+
+    @Benchmark
+    public DeathHudPayload renderPayload() {
+        return DeathHudPayload.of("death_notification.ui", "RIP Steve", "Steve was shot by Skeleton.",
+            "Icons/projectile.png");
+    }
+
+    @Benchmark
+    public UICommandBuilder buildSpectatorHud() {
+        DeathNotificationHud hud = new DeathNotificationHud(spectator, PAYLOADS[0]);
+        UICommandBuilder builder = new UICommandBuilder();
+        hud.build(builder);
+        return builder;
+    }
+
+    @Benchmark
+    public boolean patchMountedHud() {
+        return mounted.patch(PAYLOADS[deaths++ & 1]);
+    }
+}
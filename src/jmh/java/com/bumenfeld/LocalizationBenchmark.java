@@ -0,0 +1,104 @@
+package com.bumenfeld;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Rendering and loading of localization lines: what every death pays, and what startup and reload pay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalizationBenchmark {
+    private final AnnouncementTemplate.Arguments arguments =
+        new AnnouncementTemplate.Arguments("Steve", "Skeleton", "overworld", "projectile", 1);
+
+    private LocalizationBundle bundle;
+    private AnnouncementTemplate template;
+    private byte[] compiledEnglish;
+    private Path dataDirectory;
+    private LocalizationManager bundledManager;
+    private LocalizationManager editedManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        compiledEnglish = readResource("localization/en.bin");
+        bundle = CompiledLocalization.read(new ByteArrayInputStream(compiledEnglish)).bundle();
+        template = AnnouncementTemplate.compile("{player} was shot by {killer} in {world}.");
+
+        bundledManager = new LocalizationManager(Files.createTempDirectory("death-announcer-bundled"));
+        dataDirectory = Files.createTempDirectory("death-announcer-edited");
+        Path localization = Files.createDirectories(dataDirectory.resolve("localization"));
+        // Any edit makes the file differ from the bundled copy, forcing the JSON path.
+        String edited = new String(readResource("localization/en.json"), StandardCharsets.UTF_8) + "\n";
+        Files.writeString(localization.resolve("en.json"), edited);
+        editedManager = new LocalizationManager(dataDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String renderLine() {
+        return template.render(arguments);
+    }
+
+    @Benchmark
+    public RenderedAnnouncement pickAnnouncement() {
+        return RenderedAnnouncement.pick(bundle, arguments, "projectile");
+    }
+
+    @Benchmark
+    public LocalizationBundle decodeCompiledBundle() throws IOException {
+        return CompiledLocalization.read(new ByteArrayInputStream(compiledEnglish)).bundle();
+    }
+
+    @Benchmark
+    public LocalizationBundle loadBundledLanguage() {
+        return bundledManager.load("de");
+    }
+
+    @Benchmark
+    public LocalizationBundle loadEditedJsonOverride() {
+        return editedManager.load("en");
+    }
+
+    private static byte[] readResource(String resource) {
+        try (InputStream stream = LocalizationBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing resource " + resource + "; run compileLocalization first");
+            }
+            return stream.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.hypixel.hytale.server.core;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark stand-in for a formatted chat message.
+ */
+public class Message {
+    private final String text;
+    private final List<Message> children = new ArrayList<>();
+    private Color color;
+    private boolean bold;
+
+    private Message(String text) {
+        this.text = text;
+    }
+
+    public static Message raw(String text) {
+        return new Message(text);
+    }
+
+    public static Message empty() {
+        return new Message("");
+    }
+
+    public Message color(Color color) {
+        this.color = color;
+        return this;
+    }
+
+    public Message bold(boolean bold) {
+        this.bold = bold;
+        return this;
+    }
+
+    public Message insertAll(Message... messages) {
+        children.addAll(List.of(messages));
+        return this;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hypixel.hytale.server.core.entity.entities.player.hud;
+
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+/**
+ * Benchmark stand-in for the server HUD base class.
+ */
+public abstract class CustomUIHud {
+    private final PlayerRef playerRef;
+
+    protected CustomUIHud(PlayerRef playerRef) {
+        this.playerRef = playerRef;
+    }
+
+    public PlayerRef getPlayerRef() {
+        return playerRef;
+    }
+
+    protected abstract void build(UICommandBuilder builder);
+
+    public void update(boolean clear, UICommandBuilder builder) {
+        // Nothing is sent in benchmarks.
+    }
+}
@@ -0,0 +1,17 @@
+package com.hypixel.hytale.server.core.ui;
+
+/**
+ * Benchmark stand-in for a UI patch style.
+ */
+public class PatchStyle {
+    private Value<String> texturePath;
+
+    public PatchStyle setTexturePath(Value<String> texturePath) {
+        this.texturePath = texturePath;
+        return this;
+    }
+
+    public Value<String> getTexturePath() {
+        return texturePath;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hypixel.hytale.server.core.ui;
+
+/**
+ * Benchmark stand-in for a UI property value.
+ */
+public final class Value<T> {
+    private final T value;
+
+    private Value(T value) {
+        this.value = value;
+    }
+
+    public static <T> Value<T> of(T value) {
+        return new Value<>(value);
+    }
+
+    public T get() {
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.hypixel.hytale.server.core.ui.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark stand-in that records commands the way the server builder queues them before sending.
+ */
+public class UICommandBuilder {
+    private final List<Object[]> commands = new ArrayList<>();
+
+    public UICommandBuilder append(String document) {
+        commands.add(new Object[] {"append", document});
+        return this;
+    }
+
+    public UICommandBuilder set(String selector, String value) {
+        commands.add(new Object[] {"set", selector, value});
+        return this;
+    }
+
+    public UICommandBuilder setObject(String selector, Object value) {
+        commands.add(new Object[] {"setObject", selector, value});
+        return this;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.hypixel.hytale.server.core.universe;
+
+import java.util.UUID;
+
+/**
+ * Benchmark stand-in: only carries the identity and language the plugin reads.
+ */
+public class PlayerRef {
+    private final UUID uuid;
+    private final String language;
+
+    public PlayerRef(UUID uuid, String language) {
+        this.uuid = uuid;
+        this.language = language;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+}
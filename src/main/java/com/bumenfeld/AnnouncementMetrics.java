@@ -0,0 +1,231 @@
+package com.bumenfeld;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-stage latency histograms and counters for the announcement path.
+ *
+ * <p>Call sites take {@link #start()} and hand it back to {@link #record}. When instrumentation is disabled
+ * {@code start()} returns {@link #DISABLED} without reading the clock and {@code record} returns immediately, so the
+ * cost is one volatile read per site. While enabled, {@code metrics.json} in the data directory is rewritten
+ * periodically.
+ */
+final class AnnouncementMetrics {
+    static final long DISABLED = Long.MIN_VALUE;
+
+    private static final Logger LOGGER = Logger.getLogger(AnnouncementMetrics.class.getName());
+    private static final String FILE_NAME = "metrics.json";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path file;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean enabled;
+    private volatile long sinceNanos = System.nanoTime();
+    private volatile long sinceMillis = System.currentTimeMillis();
+    private ScheduledFuture<?> snapshotTask;
+
+    AnnouncementMetrics(Path dataDirectory, Settings settings) {
+        this.file = dataDirectory.resolve(FILE_NAME);
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        configure(settings);
+    }
+
+    long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    void record(Stage stage, long start) {
+        if (start != DISABLED) {
+            histograms[stage.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    void increment(Counter counter) {
+        if (enabled) {
+            counters[counter.ordinal()].increment();
+        }
+    }
+
+    synchronized void configure(Settings settings) {
+        boolean wasEnabled = enabled;
+        enabled = settings.enabled();
+        if (enabled && !wasEnabled) {
+            reset();
+        }
+        if (snapshotTask != null) {
+            snapshotTask.cancel(false);
+            snapshotTask = null;
+        }
+        if (enabled && settings.snapshotSeconds() > 0L) {
+            snapshotTask = writer.scheduleWithFixedDelay(this::writeSnapshot, settings.snapshotSeconds(),
+                settings.snapshotSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        sinceNanos = System.nanoTime();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    Snapshot snapshot() {
+        double seconds = Math.max(1e-3, (System.nanoTime() - sinceNanos) / 1_000_000_000.0);
+        List<StageSummary> stages = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = histograms[stage.ordinal()];
+            long count = histogram.count();
+            stages.add(new StageSummary(stage, count, count / seconds, histogram.percentile(50.0),
+                histogram.percentile(99.0), histogram.max()));
+        }
+        Map<Counter, Long> counts = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            counts.put(counter, counters[counter.ordinal()].sum());
+        }
+        return new Snapshot(enabled, sinceMillis, seconds, stages, counts);
+    }
+
+    /**
+     * Live histogram of {@code stage}, for reports that need more than the snapshot percentiles.
+     */
+    LatencyHistogram histogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    void shutdown() {
+        writer.shutdownNow();
+        if (enabled) {
+            writeSnapshot();
+        }
+    }
+
+    private void writeSnapshot() {
+        Snapshot snapshot = snapshot();
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("timestamp", System.currentTimeMillis());
+        root.put("since", snapshot.sinceMillis());
+        root.put("seconds", snapshot.seconds());
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (StageSummary summary : snapshot.stages()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", summary.count());
+            values.put("perSecond", summary.perSecond());
+            values.put("p50Nanos", summary.p50Nanos());
+            values.put("p99Nanos", summary.p99Nanos());
+            values.put("maxNanos", summary.maxNanos());
+            stages.put(summary.stage().configName(), values);
+        }
+        root.put("stages", stages);
+        Map<String, Object> counts = new LinkedHashMap<>();
+        snapshot.counters().forEach((counter, value) -> counts.put(counter.configName(), value));
+        root.put("counters", counts);
+
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            OBJECT_MAPPER.writeValue(temp.toFile(), root);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to write " + FILE_NAME, ex);
+        }
+    }
+
+    enum Stage {
+        /** Resolving a damage cause to its category, pool and icons. */
+        CAUSE_RESOLUTION,
+        /** Rendering title and line for one language. */
+        TEMPLATE_RENDERING,
+        /** One world's share of a notification fan-out, on the world thread. */
+        NOTIFICATION_FAN_OUT,
+        /** One notification packet, or one universe-wide notification. */
+        NOTIFICATION_SEND,
+        /** One world's share of a HUD fan-out, on the world thread. */
+        HUD_FAN_OUT,
+        /** Mounting or patching the HUD of one spectator. */
+        HUD_SPECTATOR,
+        /** Queueing one HUD reset on the timing wheel. */
+        HUD_RESET_SCHEDULING,
+        /** One world's share of a chat fan-out, on the world thread. */
+        CHAT_FAN_OUT,
+        /** One chat message, or one universe-wide broadcast. */
+        CHAT_SEND,
+        /** From a death being captured on its world thread to its notification being sent to one recipient. */
+        NOTIFICATION_DELIVERY,
+        /** From the first death of a HUD window being captured to one spectator's HUD being mounted or patched. */
+        HUD_DELIVERY,
+        /** From a death being captured on its world thread to its chat line being sent to one recipient. */
+        CHAT_DELIVERY;
+
+        String configName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    enum Counter {
+        DEATHS_ANNOUNCED,
+        RATE_LIMITED,
+        SUMMARIES,
+        MUTED_SKIPS,
+        HUD_PATCHES;
+
+        String configName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    /**
+     * {@code snapshotSeconds} of zero keeps metrics in memory only.
+     */
+    record Settings(boolean enabled, long snapshotSeconds) {
+    }
+
+    record StageSummary(Stage stage, long count, double perSecond, long p50Nanos, long p99Nanos, long maxNanos) {
+    }
+
+    record Snapshot(boolean enabled, long sinceMillis, double seconds, List<StageSummary> stages,
+                    Map<Counter, Long> counters) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.Message;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything the announcement path reaches on the server: the loaded worlds and their threads, the players in them,
+ * and the calls that put a notification, a chat line or a HUD in front of those players.
+ *
+ * <p>{@link UniverseServer} is backed by the running {@code Universe}; {@link LoadSimulator} supplies in-process
+ * worlds and counting sinks, so the same {@link DeathAnnouncementSystem} runs without a server. Handles are cheap
+ * views that may be created per call; two handles for the same world or player entity are {@code equals}.
+ */
+interface AnnouncementServer {
+
+    /**
+     * Worlds currently loaded.
+     */
+    Collection<? extends GameWorld> worlds();
+
+    /**
+     * The loaded world named {@code name}, or {@code null}.
+     */
+    GameWorld world(String name);
+
+    /**
+     * The online player with {@code uuid}, or {@code null}.
+     */
+    Recipient player(UUID uuid);
+
+    /**
+     * Sends {@code message} to every online player's chat.
+     */
+    void broadcastChat(Message message);
+
+    /**
+     * Shows a notification to every online player.
+     */
+    void broadcastNotification(Message title, Message subtitle, String iconPath);
+
+    /**
+     * Whether {@link Recipient#sendNotification} is available; without it, scoped notifications reach everyone.
+     */
+    boolean supportsPlayerNotifications();
+
+    interface GameWorld {
+        String name();
+
+        /**
+         * Runs {@code task} on the world thread.
+         */
+        void execute(Runnable task);
+
+        /**
+         * Players currently in the world. Must run on the world thread.
+         */
+        List<? extends Recipient> players();
+    }
+
+    interface Recipient {
+        UUID uuid();
+
+        String username();
+
+        String language();
+
+        /**
+         * Current position, or {@code null} while the entity is not loaded. Must run on the world thread.
+         */
+        Vector3d position();
+
+        void sendMessage(Message message);
+
+        /**
+         * Only valid when {@link AnnouncementServer#supportsPlayerNotifications()} is {@code true}.
+         */
+        void sendNotification(Message title, Message subtitle, String iconPath);
+
+        /**
+         * The entity a death HUD is mounted on, or {@code null} while it cannot show one yet. Must run on the world
+         * thread.
+         */
+        HudHolder hudHolder();
+    }
+
+    /**
+     * One player entity that can show the death HUD; a player gets a new holder when its entity changes.
+     */
+    interface HudHolder {
+        /**
+         * Mounts a new death HUD showing {@code payload}, or returns {@code null} when HUDs cannot be shown.
+         */
+        DeathHud mount(DeathHudPayload payload);
+
+        void hide();
+    }
+
+    /**
+     * A mounted death HUD; see {@link DeathNotificationHud#patch}.
+     */
+    @FunctionalInterface
+    interface DeathHud {
+        boolean patch(DeathHudPayload next);
+    }
+}
@@ -0,0 +1,155 @@
+package com.bumenfeld;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Localization line compiled once into literal segments and placeholder slots.
+ *
+ * <p>Supported placeholders are {@code {player}}, {@code {killer}}, {@code {world}}, {@code {cause}} and
+ * {@code {count}}. Unknown braces are kept as literal text.
+ */
+public final class AnnouncementTemplate {
+    private static final Placeholder[] NO_SLOTS = new Placeholder[0];
+    private static final AnnouncementTemplate FALLBACK_LINE = compile("{player} fell.");
+
+    private final String source;
+    private final String[] literals;
+    private final Placeholder[] slots;
+    private final int literalLength;
+
+    private AnnouncementTemplate(String source, String[] literals, Placeholder[] slots) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static AnnouncementTemplate compile(String source) {
+        String text = Objects.requireNonNullElse(source, "");
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < text.length()) {
+            char current = text.charAt(index);
+            if (current == '{') {
+                int close = text.indexOf('}', index + 1);
+                Placeholder placeholder = close < 0 ? null : Placeholder.byName(text, index + 1, close);
+                if (placeholder != null) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    slots.add(placeholder);
+                    index = close + 1;
+                    continue;
+                }
+            }
+            literal.append(current);
+            index++;
+        }
+        literals.add(literal.toString());
+        return new AnnouncementTemplate(text, literals.toArray(String[]::new),
+            slots.isEmpty() ? NO_SLOTS : slots.toArray(Placeholder[]::new));
+    }
+
+    /**
+     * Rebuilds a template that was already split into segments, e.g. by the build-time localization compiler.
+     * {@code literals} must hold exactly one more entry than {@code slots}.
+     */
+    static AnnouncementTemplate precompiled(String source, String[] literals, Placeholder[] slots) {
+        if (literals.length != slots.length + 1) {
+            throw new IllegalArgumentException("Expected " + (slots.length + 1) + " literals, got " + literals.length);
+        }
+        return new AnnouncementTemplate(source, literals, slots.length == 0 ? NO_SLOTS : slots);
+    }
+
+    /**
+     * Picks one line of {@code options} at random, or a generic fallback line when the pool is empty.
+     */
+    static AnnouncementTemplate pick(List<AnnouncementTemplate> options) {
+        if (options.isEmpty()) {
+            return FALLBACK_LINE;
+        }
+        return options.get(ThreadLocalRandom.current().nextInt(options.size()));
+    }
+
+    public String render(Arguments arguments) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        int length = literalLength;
+        for (Placeholder slot : slots) {
+            length += arguments.value(slot).length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(arguments.value(slots[i]));
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    public enum Placeholder {
+        PLAYER,
+        KILLER,
+        WORLD,
+        CAUSE,
+        COUNT;
+
+        private final String token = name().toLowerCase(Locale.ROOT);
+
+        private static Placeholder byName(String text, int start, int end) {
+            int length = end - start;
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.length() == length && text.regionMatches(start, placeholder.token, 0, length)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Values substituted into a template; missing values render as empty text.
+     */
+    public record Arguments(String player, String killer, String world, String cause, int count) {
+        public Arguments {
+            player = Objects.requireNonNullElse(player, "");
+            killer = Objects.requireNonNullElse(killer, "");
+            world = Objects.requireNonNullElse(world, "");
+            cause = Objects.requireNonNullElse(cause, "");
+        }
+
+        public static Arguments ofCount(int count) {
+            return new Arguments("", "", "", "", count);
+        }
+
+        String value(Placeholder placeholder) {
+            return switch (placeholder) {
+                case PLAYER -> player;
+                case KILLER -> killer;
+                case WORLD -> world;
+                case CAUSE -> cause;
+                case COUNT -> Integer.toString(count);
+            };
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.bumenfeld;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Command line entry point: runs the headless {@link LoadSimulator} against the announcement path.
+ */
 public final class Application {
 
     private static final AtomicBoolean RUNNING = new AtomicBoolean();
@@ -9,22 +13,27 @@ public final class Application {
     private Application() {
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
         if (!RUNNING.compareAndSet(false, true)) {
             System.err.println("Application is already running");
             return;
         }
 
-        System.out.println("Bumenfeld Death Announcer is ready.");
-        // Application entrypoint can be extended by future projects.
-        // Add task scheduling, configuration loading, or other framework integrations here.
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("Shutting down gracefully.")));
-
-        if (args.length > 0) {
-            System.out.println("Received arguments:");
-            for (String arg : args) {
-                System.out.printf(" - %s%n", arg);
-            }
+        LoadSimulator.Options options;
+        try {
+            options = LoadSimulator.Options.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(LoadSimulator.usage());
+            System.exit(2);
+            return;
         }
+        if (options == null) {
+            System.out.println(LoadSimulator.usage());
+            return;
+        }
+
+        System.out.println("Bumenfeld Death Announcer load simulator");
+        new LoadSimulator(options).run(System.out);
     }
 }
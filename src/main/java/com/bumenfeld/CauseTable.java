@@ -0,0 +1,144 @@
+package com.bumenfeld;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable mapping from damage cause ids to their category and icon paths. Announcement lines are not part of the
+ * table: they are picked from the category's pool in the bundle of each recipient.
+ *
+ * <p>The table is built once from the known damage causes. Ids that only show up at runtime are resolved once and
+ * kept in a small bounded cache.
+ */
+final class CauseTable {
+    static final Map<String, String> ICON_FILES = Map.ofEntries(
+        Map.entry("physical", "physical.png"),
+        Map.entry("projectile", "projectile.png"),
+        Map.entry("command", "explosion.png"),
+        Map.entry("drowning", "drowning.png"),
+        Map.entry("drown", "drown.png"),
+        Map.entry("environment", "environment.png"),
+        Map.entry("fire", "fire.png"),
+        Map.entry("lava", "lava.png"),
+        Map.entry("explosion", "explosion.png"),
+        Map.entry("poison", "poison.png"),
+        Map.entry("freeze", "freeze.png"),
+        Map.entry("fall", "fall.png"),
+        Map.entry("out_of_world", "out_of_world.png"),
+        Map.entry("void", "void.png"),
+        Map.entry("suffocation", "suffocation.png")
+    );
+    private static final String HUD_ICON_PREFIX = "icons/";
+    private static final String NOTIFICATION_ICON_PREFIX = "ui/custom/icons/";
+    private static final int MAX_RUNTIME_CAUSES = 256;
+
+    private final Map<String, ResolvedCause> knownCauses;
+    private final ConcurrentMap<String, ResolvedCause> runtimeCauses = new ConcurrentHashMap<>();
+
+    private CauseTable(Map<String, ResolvedCause> knownCauses) {
+        this.knownCauses = knownCauses;
+    }
+
+    static CauseTable build(Collection<String> causeIds) {
+        Objects.requireNonNull(causeIds, "causeIds");
+        Map<String, ResolvedCause> resolved = new HashMap<>();
+        for (String causeId : causeIds) {
+            if (causeId != null) {
+                resolved.put(causeId, compute(causeId));
+            }
+        }
+        return new CauseTable(Map.copyOf(resolved));
+    }
+
+    ResolvedCause resolve(String causeId) {
+        String key = causeId == null ? "" : causeId;
+        ResolvedCause known = knownCauses.get(key);
+        if (known != null) {
+            return known;
+        }
+        ResolvedCause cached = runtimeCauses.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        ResolvedCause computed = compute(key);
+        if (runtimeCauses.size() < MAX_RUNTIME_CAUSES) {
+            runtimeCauses.putIfAbsent(key, computed);
+        }
+        return computed;
+    }
+
+    List<ResolvedCause> entries() {
+        return knownCauses.values().stream()
+            .sorted((left, right) -> left.id().compareTo(right.id()))
+            .toList();
+    }
+
+    List<ResolvedCause> runtimeEntries() {
+        return runtimeCauses.values().stream()
+            .sorted((left, right) -> left.id().compareTo(right.id()))
+            .toList();
+    }
+
+    private static ResolvedCause compute(String causeId) {
+        String category = resolveCategory(causeId);
+        String iconFile = ICON_FILES.get(causeId);
+        if (iconFile == null) {
+            iconFile = ICON_FILES.getOrDefault(category, "physical.png");
+        }
+        return new ResolvedCause(causeId, category, HUD_ICON_PREFIX + iconFile, NOTIFICATION_ICON_PREFIX + iconFile);
+    }
+
+    static String resolveCategory(String causeName) {
+        if (causeName.contains("projectile")) {
+            return "projectile";
+        }
+        if (causeName.contains("fall")) {
+            return "fall";
+        }
+        if (causeName.contains("drown")) {
+            return "drowning";
+        }
+        if (causeName.contains("suffocat")) {
+            return "suffocation";
+        }
+        if (causeName.contains("out_of_world") || causeName.contains("void")) {
+            return "out_of_world";
+        }
+        if (causeName.contains("fire")) {
+            return "fire";
+        }
+        if (causeName.contains("lava")) {
+            return "lava";
+        }
+        if (causeName.contains("explosion")) {
+            return "explosion";
+        }
+        if (causeName.contains("poison")) {
+            return "poison";
+        }
+        if (causeName.contains("freeze")) {
+            return "freeze";
+        }
+        if (causeName.contains("environment")) {
+            return "environment";
+        }
+        if (causeName.contains("command")) {
+            return "command";
+        }
+        if (causeName.contains("physical") || causeName.contains("melee") || causeName.contains("attack")) {
+            return "physical";
+        }
+        return "generic";
+    }
+
+    record ResolvedCause(String id,
+                         String category,
+                         String hudTexturePath,
+                         String notificationIconPath) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.bumenfeld;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Localization bundle produced at build time by the {@code compileLocalization} Gradle task.
+ *
+ * <p>Layout (big-endian): magic, version, length and CRC-32 of the JSON source, an interned string table, the
+ * templates as string ids plus placeholder ordinals, and finally the pools as name id plus template ids. Loading it
+ * only decodes the tables; nothing is parsed or compiled at runtime. The source checksum tells whether a copy in the
+ * data directory is still the bundled file or was edited by an admin.
+ */
+final class CompiledLocalization {
+    static final int MAGIC = 0x444C4F43;
+    static final int VERSION = 1;
+
+    private final long sourceLength;
+    private final long sourceChecksum;
+    private final LocalizationBundle bundle;
+
+    private CompiledLocalization(long sourceLength, long sourceChecksum, LocalizationBundle bundle) {
+        this.sourceLength = sourceLength;
+        this.sourceChecksum = sourceChecksum;
+        this.bundle = bundle;
+    }
+
+    static CompiledLocalization read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a compiled localization file");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled localization version " + version);
+        }
+        long sourceLength = input.readLong();
+        long sourceChecksum = input.readLong();
+
+        String[] strings = new String[input.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUTF();
+        }
+
+        AnnouncementTemplate.Placeholder[] placeholders = AnnouncementTemplate.Placeholder.values();
+        AnnouncementTemplate[] templates = new AnnouncementTemplate[input.readInt()];
+        for (int i = 0; i < templates.length; i++) {
+            String source = strings[input.readInt()];
+            int slotCount = input.readUnsignedByte();
+            String[] literals = new String[slotCount + 1];
+            for (int j = 0; j < literals.length; j++) {
+                literals[j] = strings[input.readInt()];
+            }
+            AnnouncementTemplate.Placeholder[] slots = new AnnouncementTemplate.Placeholder[slotCount];
+            for (int j = 0; j < slotCount; j++) {
+                int ordinal = input.readUnsignedByte();
+                if (ordinal >= placeholders.length) {
+                    throw new IOException("Unknown placeholder ordinal " + ordinal);
+                }
+                slots[j] = placeholders[ordinal];
+            }
+            templates[i] = AnnouncementTemplate.precompiled(source, literals, slots);
+        }
+
+        int poolCount = input.readInt();
+        Map<String, List<AnnouncementTemplate>> pools = new HashMap<>(poolCount * 2);
+        for (int i = 0; i < poolCount; i++) {
+            String name = strings[input.readInt()];
+            int lineCount = input.readInt();
+            List<AnnouncementTemplate> lines = new ArrayList<>(lineCount);
+            for (int j = 0; j < lineCount; j++) {
+                lines.add(templates[input.readInt()]);
+            }
+            pools.put(name, lines);
+        }
+        return new CompiledLocalization(sourceLength, sourceChecksum, LocalizationBundle.ofTemplates(pools));
+    }
+
+    LocalizationBundle bundle() {
+        return bundle;
+    }
+
+    /**
+     * Returns whether {@code source} is byte-for-byte the JSON this bundle was compiled from.
+     */
+    boolean isCompiledFrom(byte[] source) {
+        if (source.length != sourceLength) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return crc.getValue() == sourceChecksum;
+    }
+}
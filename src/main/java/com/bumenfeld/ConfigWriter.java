@@ -0,0 +1,112 @@
+package com.bumenfeld;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Persists configuration edits made by commands without blocking the command thread.
+ *
+ * <p>Edits made within {@link #COALESCE_MILLIS} of each other share one crash-safe write of {@code config.yml}
+ * ({@link DeathAnnouncerConfig#save}) on the reloader thread, after which the result is applied once. The edits are
+ * kept until that write and replayed, in order, on the configuration that is running when it happens, so a reload
+ * from disk that lands in between is built upon rather than overwritten. The futures of all edits in the batch
+ * complete when the file is durable and the change is live.
+ */
+final class ConfigWriter {
+    private static final long COALESCE_MILLIS = 100;
+
+    private final Path dataDirectory;
+    private final ConfigurationReloader reloader;
+    private final Supplier<DeathAnnouncerConfig> running;
+    private final Consumer<DeathAnnouncerConfig> apply;
+    private final Object lock = new Object();
+
+    // Guarded by lock.
+    private List<UnaryOperator<DeathAnnouncerConfig>> edits = new ArrayList<>();
+    private List<CompletableFuture<Void>> waiting = new ArrayList<>();
+
+    ConfigWriter(Path dataDirectory,
+                 ConfigurationReloader reloader,
+                 Supplier<DeathAnnouncerConfig> running,
+                 Consumer<DeathAnnouncerConfig> apply) {
+        this.dataDirectory = Objects.requireNonNull(dataDirectory, "dataDirectory");
+        this.reloader = Objects.requireNonNull(reloader, "reloader");
+        this.running = Objects.requireNonNull(running, "running");
+        this.apply = Objects.requireNonNull(apply, "apply");
+    }
+
+    /**
+     * Queues {@code edit}; the returned future completes once the edited configuration is on disk and applied, or
+     * fails with the write error.
+     */
+    CompletableFuture<Void> update(UnaryOperator<DeathAnnouncerConfig> edit) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (lock) {
+            edits.add(Objects.requireNonNull(edit, "edit"));
+            waiting.add(durable);
+            if (waiting.size() == 1) {
+                reloader.schedule(this::flush, COALESCE_MILLIS).exceptionally(failure -> {
+                    // The reloader is shutting down and never ran the write.
+                    failPending(failure);
+                    return null;
+                });
+            }
+        }
+        return durable;
+    }
+
+    private void flush() {
+        List<UnaryOperator<DeathAnnouncerConfig>> batchEdits;
+        List<CompletableFuture<Void>> batch;
+        synchronized (lock) {
+            batchEdits = edits;
+            edits = new ArrayList<>();
+            batch = takeBatch();
+        }
+        Throwable failure = null;
+        try {
+            // Reloads run on this thread too, so the running configuration is the newest one.
+            DeathAnnouncerConfig config = running.get();
+            for (UnaryOperator<DeathAnnouncerConfig> edit : batchEdits) {
+                config = edit.apply(config);
+            }
+            config.save(dataDirectory);
+            reloader.markWritten();
+            apply.accept(config);
+        } catch (Exception ex) {
+            failure = ex;
+        }
+        complete(batch, failure);
+    }
+
+    private void failPending(Throwable failure) {
+        List<CompletableFuture<Void>> batch;
+        synchronized (lock) {
+            batch = takeBatch();
+            edits = new ArrayList<>();
+        }
+        complete(batch, failure);
+    }
+
+    private List<CompletableFuture<Void>> takeBatch() {
+        List<CompletableFuture<Void>> batch = waiting;
+        waiting = new ArrayList<>();
+        return batch;
+    }
+
+    private static void complete(List<CompletableFuture<Void>> batch, Throwable failure) {
+        for (CompletableFuture<Void> durable : batch) {
+            if (failure == null) {
+                durable.complete(null);
+            } else {
+                durable.completeExceptionally(failure);
+            }
+        }
+    }
+}
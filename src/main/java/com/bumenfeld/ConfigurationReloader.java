@@ -0,0 +1,258 @@
+package com.bumenfeld;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs configuration reloads on a dedicated thread, away from command and world threads.
+ *
+ * <p>A watcher thread follows {@code config.yml} and the {@code localization} directory. Changes are collected until
+ * the files have been quiet for {@link #DEBOUNCE_MILLIS}, so an editor that writes a file in several steps causes one
+ * reload, and are then handed to the {@link Target} with the localization files that were touched. Writes made by
+ * the plugin itself are registered with {@link #markWritten} and do not trigger a reload of their own. Reloads
+ * requested by commands go through {@link #submit} and run on the same thread, so reloads never overlap.
+ */
+final class ConfigurationReloader {
+    private static final Logger LOGGER = Logger.getLogger(ConfigurationReloader.class.getName());
+    private static final long DEBOUNCE_MILLIS = 250;
+    private static final String CONFIG_FILE = "config.yml";
+    private static final String LOCALIZATION_SUFFIX = ".json";
+
+    private final Path configFile;
+    private final Path localizationDirectory;
+    private final Target target;
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+    private WatchService watchService;
+    private Thread watcher;
+
+    // Guarded by lock.
+    private boolean configChanged;
+    private boolean overflowed;
+    private final Set<String> changedLanguages = new LinkedHashSet<>();
+    private ScheduledFuture<?> pendingReload;
+
+    // Reloader thread state.
+    private FileStamp writtenConfig;
+
+    private ConfigurationReloader(Path dataDirectory, Target target) {
+        this.configFile = dataDirectory.resolve(CONFIG_FILE);
+        this.localizationDirectory = dataDirectory.resolve("localization");
+        this.target = Objects.requireNonNull(target, "target");
+    }
+
+    /**
+     * Starts the reloader; when the directories cannot be watched, only {@link #submit} is available.
+     */
+    static ConfigurationReloader start(Path dataDirectory, Target target) {
+        ConfigurationReloader reloader = new ConfigurationReloader(dataDirectory, target);
+        try {
+            reloader.watchService = FileSystems.getDefault().newWatchService();
+            reloader.configFile.getParent().register(reloader.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            if (Files.isDirectory(reloader.localizationDirectory)) {
+                reloader.localizationDirectory.register(reloader.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            reloader.watcher = new Thread(reloader::watchLoop, "death-notification-config-watcher");
+            reloader.watcher.setDaemon(true);
+            reloader.watcher.start();
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.log(Level.WARNING, "Unable to watch the plugin data directory; edits on disk need "
+                + "/deathnotification reload", ex);
+            reloader.closeWatchService();
+        }
+        return reloader;
+    }
+
+    /**
+     * Runs {@code task} on the reloader thread after any reload already queued.
+     */
+    CompletableFuture<Void> submit(ReloadTask task) {
+        return schedule(task, 0L);
+    }
+
+    /**
+     * Runs {@code task} on the reloader thread once {@code delayMillis} have passed.
+     */
+    CompletableFuture<Void> schedule(ReloadTask task, long delayMillis) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            reloader.schedule(() -> {
+                try {
+                    task.run();
+                    result.complete(null);
+                } catch (Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Records that the plugin has just written {@code config.yml}, so the watcher event for that write is ignored.
+     * Must run on the reloader thread.
+     */
+    void markWritten() {
+        writtenConfig = FileStamp.of(configFile);
+    }
+
+    void shutdown() {
+        closeWatchService();
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        reloader.shutdown();
+        try {
+            reloader.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+            Path directory = (Path) key.watchable();
+            synchronized (lock) {
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    relevant |= record(directory, event);
+                }
+                // The data directory also holds files the plugin rewrites all the time, such as deaths.log.
+                if (!relevant) {
+                    key.reset();
+                    continue;
+                }
+                if (pendingReload != null) {
+                    pendingReload.cancel(false);
+                }
+                try {
+                    pendingReload = reloader.schedule(this::reloadChanges, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (RuntimeException ex) {
+                    // Shutting down.
+                    return;
+                }
+            }
+            if (!key.reset() && directory.equals(localizationDirectory)) {
+                LOGGER.warning("Stopped watching " + localizationDirectory + "; it is no longer accessible.");
+            }
+        }
+    }
+
+    /**
+     * Notes a config or localization change; returns {@code false} for events on other files.
+     */
+    private boolean record(Path directory, WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            overflowed = true;
+            return true;
+        }
+        String name = event.context().toString();
+        if (directory.equals(localizationDirectory)) {
+            if (name.endsWith(LOCALIZATION_SUFFIX)) {
+                changedLanguages.add(name.substring(0, name.length() - LOCALIZATION_SUFFIX.length()));
+                return true;
+            }
+        } else if (name.equals(CONFIG_FILE)) {
+            configChanged = true;
+            return true;
+        }
+        return false;
+    }
+
+    private void reloadChanges() {
+        boolean config;
+        boolean everything;
+        Set<String> languages;
+        synchronized (lock) {
+            config = configChanged;
+            everything = overflowed;
+            languages = Set.copyOf(changedLanguages);
+            configChanged = false;
+            overflowed = false;
+            changedLanguages.clear();
+            pendingReload = null;
+        }
+        if (config && writtenConfig != null && writtenConfig.equals(FileStamp.of(configFile))) {
+            config = false;
+        }
+        if (!config && !everything && languages.isEmpty()) {
+            return;
+        }
+        try {
+            target.reload(config || everything, everything ? null : languages);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Failed to apply configuration changes from disk", ex);
+        }
+    }
+
+    private void closeWatchService() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Nothing left to do on shutdown.
+        }
+    }
+
+    /**
+     * Receives changes found on disk; called on the reloader thread.
+     */
+    interface Target {
+        /**
+         * @param configChanged    {@code config.yml} may differ from the running configuration
+         * @param changedLanguages localization files (without extension) that were edited, created or deleted, or
+         *                         {@code null} when events were lost and every language has to be reloaded
+         */
+        void reload(boolean configChanged, Set<String> changedLanguages);
+    }
+
+    @FunctionalInterface
+    interface ReloadTask {
+        void run() throws Exception;
+    }
+
+    private record FileStamp(long modifiedMillis, long size) {
+        static FileStamp of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException ex) {
+                return null;
+            }
+        }
+    }
+}
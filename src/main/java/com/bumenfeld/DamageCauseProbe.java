@@ -0,0 +1,129 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Derives a cause name from a {@link Damage} when the death component carries no {@link
+ * com.hypixel.hytale.server.core.modules.entity.damage.DamageCause}.
+ *
+ * <p>The getter probe runs once per {@code Damage} subclass; the matching getters are cached in a {@link ClassValue}
+ * as method handles, so later deaths of the same type never touch reflection or throw.
+ */
+final class DamageCauseProbe {
+    private static final Logger LOGGER = Logger.getLogger(DamageCauseProbe.class.getName());
+    private static final String[] PROBES = {
+        "getCause",
+        "getSource",
+        "getDamageSource",
+        "getDamageType",
+        "getType"
+    };
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final LongAdder LOOKUPS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final ConcurrentMap<String, Accessor> ACCESSORS_BY_TYPE = new ConcurrentHashMap<>();
+    private static final ClassValue<Accessor> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Accessor computeValue(Class<?> type) {
+            MISSES.increment();
+            Accessor accessor = new Accessor(type.getName(), probe(type));
+            ACCESSORS_BY_TYPE.put(type.getName(), accessor);
+            LOGGER.info(() -> "Damage type " + type.getName() + " has no death cause; probed "
+                + accessor.getters.length + " cause getter(s).");
+            return accessor;
+        }
+    };
+
+    private DamageCauseProbe() {
+    }
+
+    static String resolveCauseName(Damage deathInfo) {
+        if (deathInfo == null) {
+            return "";
+        }
+
+        LOOKUPS.increment();
+        Accessor accessor = ACCESSORS.get(deathInfo.getClass());
+        accessor.uses.increment();
+        for (MethodHandle getter : accessor.getters) {
+            Object value;
+            try {
+                value = (Object) getter.invokeExact((Object) deathInfo);
+            } catch (Error ex) {
+                throw ex;
+            } catch (Throwable ignored) {
+                // Try the next getter.
+                continue;
+            }
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Enum<?> enumValue) {
+                return enumValue.name().toLowerCase(Locale.ROOT);
+            }
+            if (value instanceof String text) {
+                return text.toLowerCase(Locale.ROOT);
+            }
+            return value.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+        }
+
+        return deathInfo.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+    }
+
+    static Stats stats() {
+        long lookups = LOOKUPS.sum();
+        long misses = MISSES.sum();
+        List<TypeStats> types = ACCESSORS_BY_TYPE.values().stream()
+            .map(accessor -> new TypeStats(accessor.typeName, accessor.getters.length, accessor.uses.sum()))
+            .sorted(Comparator.comparingLong(TypeStats::uses).reversed())
+            .toList();
+        return new Stats(Math.max(0L, lookups - misses), misses, types);
+    }
+
+    private static MethodHandle[] probe(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        List<MethodHandle> getters = new ArrayList<>();
+        for (String probe : PROBES) {
+            try {
+                Method method = type.getMethod(probe);
+                if (method.getReturnType() == void.class) {
+                    continue;
+                }
+                getters.add(lookup.unreflect(method).asType(GETTER_TYPE));
+            } catch (ReflectiveOperationException | SecurityException ignored) {
+                // Try the next probe.
+            }
+        }
+        return getters.toArray(MethodHandle[]::new);
+    }
+
+    private static final class Accessor {
+        private final String typeName;
+        private final MethodHandle[] getters;
+        private final LongAdder uses = new LongAdder();
+
+        private Accessor(String typeName, MethodHandle[] getters) {
+            this.typeName = typeName;
+            this.getters = getters;
+        }
+    }
+
+    record Stats(long hits, long misses, List<TypeStats> types) {
+    }
+
+    record TypeStats(String typeName, int getterCount, long uses) {
+    }
+}
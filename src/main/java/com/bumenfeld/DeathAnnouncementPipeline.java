@@ -0,0 +1,154 @@
+package com.bumenfeld;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves death announcements off the world tick thread.
+ *
+ * <p>The tick thread only captures an immutable {@link DeathRecord} into a bounded {@link MpscRingBuffer}; a
+ * dedicated dispatcher thread renders and sends the announcement. When the buffer is full the configured
+ * {@link OverflowPolicy} decides what happens to the death; neither policy announces it on the submitting thread,
+ * so a full queue never adds rendering or fan-out work to the world tick.
+ */
+final class DeathAnnouncementPipeline {
+    private static final Logger LOGGER = Logger.getLogger(DeathAnnouncementPipeline.class.getName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MpscRingBuffer<DeathRecord> queue;
+    private final Consumer<DeathRecord> handler;
+    private final Consumer<DeathRecord> overflowHandler;
+    private final Thread dispatcher;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder summarized = new LongAdder();
+    private final AtomicLong maxDepth = new AtomicLong();
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile boolean dispatcherParked;
+    private volatile boolean running = true;
+
+    /**
+     * @param overflowHandler receives deaths that did not fit under {@link OverflowPolicy#SUMMARIZE}; it runs on the
+     *                        submitting thread and must only count them
+     */
+    DeathAnnouncementPipeline(int capacity,
+                              OverflowPolicy overflowPolicy,
+                              Consumer<DeathRecord> handler,
+                              Consumer<DeathRecord> overflowHandler) {
+        this.queue = new MpscRingBuffer<>(capacity);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+        this.handler = Objects.requireNonNull(handler, "handler");
+        this.overflowHandler = Objects.requireNonNull(overflowHandler, "overflowHandler");
+        this.dispatcher = new Thread(this::dispatchLoop, "death-announcer-dispatch");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    void submit(DeathRecord record) {
+        submitted.increment();
+        if (!queue.offer(record)) {
+            dropped.increment();
+            if (overflowPolicy == OverflowPolicy.SUMMARIZE) {
+                summarized.increment();
+                try {
+                    overflowHandler.accept(record);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Failed to count dropped death of " + record.playerName(), ex);
+                }
+            }
+            return;
+        }
+
+        long depth = queue.size();
+        if (depth > maxDepth.get()) {
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+        if (dispatcherParked) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    void setOverflowPolicy(OverflowPolicy policy) {
+        this.overflowPolicy = Objects.requireNonNull(policy, "policy");
+    }
+
+    Stats stats() {
+        return new Stats(queue.size(), maxDepth.get(), queue.capacity(), submitted.sum(), processed.sum(),
+            dropped.sum(), summarized.sum(), overflowPolicy);
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            DeathRecord record = queue.poll();
+            if (record != null) {
+                handle(record);
+                continue;
+            }
+
+            dispatcherParked = true;
+            if (queue.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            dispatcherParked = false;
+        }
+    }
+
+    private void handle(DeathRecord record) {
+        try {
+            handler.accept(record);
+            processed.increment();
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Failed to announce death of " + record.playerName(), ex);
+        }
+    }
+
+    enum OverflowPolicy {
+        /** Discard deaths that do not fit into the queue. */
+        DROP_NEWEST,
+        /**
+         * Discard deaths that do not fit into the queue, but count them so they are announced in the next rate-limit
+         * summary of their world.
+         */
+        SUMMARIZE;
+
+        String configName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        static OverflowPolicy parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            String normalized = value.trim().toLowerCase(Locale.ROOT);
+            for (OverflowPolicy policy : values()) {
+                if (policy.configName().equals(normalized)) {
+                    return policy;
+                }
+            }
+            return null;
+        }
+    }
+
+    record Stats(int depth,
+                 long maxDepth,
+                 int capacity,
+                 long submitted,
+                 long processed,
+                 long dropped,
+                 long summarized,
+                 OverflowPolicy overflowPolicy) {
+    }
+}
@@ -1,40 +1,31 @@
 package com.bumenfeld;
 
-import com.buuz135.mhud.MultipleHUD;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.query.Query;
-import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
 import com.hypixel.hytale.server.core.modules.entity.damage.DamageCause;
 import com.hypixel.hytale.server.core.modules.entity.damage.DeathComponent;
 import com.hypixel.hytale.server.core.modules.entity.damage.DeathSystems;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.util.NotificationUtil;
-import com.hypixel.hytale.protocol.ItemWithAllMetadata;
-import com.hypixel.hytale.protocol.packets.interface_.NotificationStyle;
 
-import java.awt.Color;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,54 +33,50 @@ import java.util.logging.Logger;
 public final class DeathAnnouncementSystem extends DeathSystems.OnDeathSystem {
     private static final Logger LOGGER = Logger.getLogger(DeathAnnouncementSystem.class.getName());
 
-    private static final Map<String, String> ICON_FILES = Map.ofEntries(
-        Map.entry("physical", "physical.png"),
-        Map.entry("projectile", "projectile.png"),
-        Map.entry("command", "explosion.png"),
-        Map.entry("drowning", "drowning.png"),
-        Map.entry("drown", "drown.png"),
-        Map.entry("environment", "environment.png"),
-        Map.entry("fire", "fire.png"),
-        Map.entry("lava", "lava.png"),
-        Map.entry("explosion", "explosion.png"),
-        Map.entry("poison", "poison.png"),
-        Map.entry("freeze", "freeze.png"),
-        Map.entry("fall", "fall.png"),
-        Map.entry("out_of_world", "out_of_world.png"),
-        Map.entry("void", "void.png"),
-        Map.entry("suffocation", "suffocation.png")
-    );
-    private static final String HUD_ICON_PREFIX = "icons/";
-    private static final String NOTIFICATION_ICON_PREFIX = "ui/custom/icons/";
-    private static final String FALLBACK_NOTIFICATION_ITEM = "Weapon_Sword_Mithril";
-    private static final String HUD_KEY = "BumenfeldDeathAnnouncer";
-
-    private volatile long hudDisplaySeconds;
-    private volatile boolean hudNotificationsEnabled;
-
-    private volatile LocalizationBundle localizationBundle;
-    private volatile boolean notificationsEnabled;
-    private volatile boolean chatNotificationsEnabled;
-    private final ScheduledExecutorService hudResetScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread thread = new Thread(r, "death-notification-hud-reset");
-        thread.setDaemon(true);
-        return thread;
-    });
+    private final LocaleBundleCache localeBundles;
+    private final List<String> supportedCauses;
+    private volatile RuntimeSettings settings;
     private final String hudResourcePath;
-    private final ConcurrentMap<PlayerRef, ScheduledFuture<?>> hudResetTasks = new ConcurrentHashMap<>();
-
-    public DeathAnnouncementSystem(LocalizationBundle localizationBundle,
-                                   boolean notificationsEnabled,
-                                   boolean chatNotificationsEnabled,
+    private final AnnouncementServer server;
+    private final HudResetWheel hudResetWheel = new HudResetWheel(this::hideExpiredHuds);
+    private final Map<UUID, MountedHud> mountedHuds = new ConcurrentHashMap<>();
+    private final SpectatorRegistry spectators;
+    private final DeathHudCoalescer<LocalizedRenderings<RenderedAnnouncement>> hudCoalescer;
+    private final DeathAnnouncementPipeline pipeline;
+    private final DeathRateLimiter rateLimiter;
+    private final PlayerSpatialIndex spatialIndex;
+    private final PlayerPreferenceStore preferences;
+    private final DeathJournal journal;
+    private final DeathStatistics statistics;
+    private final DeathLog deathLog;
+    private final AnnouncementMetrics metrics;
+
+    public DeathAnnouncementSystem(LocaleBundleCache localeBundles,
+                                   DeathAnnouncerConfig config,
                                    String hudResourcePath,
-                                   long hudDisplaySeconds,
-                                   boolean hudNotificationsEnabled) {
-        this.localizationBundle = Objects.requireNonNull(localizationBundle, "localizationBundle");
-        this.notificationsEnabled = notificationsEnabled;
-        this.chatNotificationsEnabled = chatNotificationsEnabled;
+                                   AnnouncementServer server,
+                                   PlayerPreferenceStore preferences,
+                                   DeathJournal journal,
+                                   DeathStatistics statistics,
+                                   DeathLog deathLog,
+                                   AnnouncementMetrics metrics) {
+        this.localeBundles = Objects.requireNonNull(localeBundles, "localeBundles");
+        this.supportedCauses = resolveRawDamageCauseIds();
+        this.settings = RuntimeSettings.of(config, CauseTable.build(supportedCauses));
         this.hudResourcePath = Objects.requireNonNull(hudResourcePath, "hudResourcePath");
-        this.hudDisplaySeconds = Math.max(1L, hudDisplaySeconds);
-        this.hudNotificationsEnabled = hudNotificationsEnabled;
+        this.server = Objects.requireNonNull(server, "server");
+        this.preferences = Objects.requireNonNull(preferences, "preferences");
+        this.journal = Objects.requireNonNull(journal, "journal");
+        this.statistics = Objects.requireNonNull(statistics, "statistics");
+        this.deathLog = Objects.requireNonNull(deathLog, "deathLog");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.spatialIndex = new PlayerSpatialIndex(server);
+        this.spectators = new SpectatorRegistry(server);
+        spatialIndex.setEnabled(settings.delivery().usesRadius());
+        this.hudCoalescer = new DeathHudCoalescer<>(config.getHudCoalesceMillis(), this::deliverDeathHud);
+        this.rateLimiter = new DeathRateLimiter(config.getRateLimitSettings(), this::announceSuppressedDeaths);
+        this.pipeline = new DeathAnnouncementPipeline(config.getPipelineQueueCapacity(),
+            config.getPipelineOverflowPolicy(), this::announce, this::summarizeOverflow);
     }
 
     @Override
@@ -108,98 +95,198 @@ public final class DeathAnnouncementSystem extends DeathSystems.OnDeathSystem {
             return;
         }
 
-        String displayName = player.getDisplayName();
         String causeName = resolveCauseName(component);
-        DeathAnnouncement announcement = pickAnnouncement(displayName, causeName);
-        Message title = Message.raw(announcement.title());
-        Message subtitle = Message.raw(announcement.subtitle());
-
-        logDeath(player, causeName);
+        TransformComponent transform = (TransformComponent) store.getComponent(ref, TransformComponent.getComponentType());
+        Vector3d position = transform == null ? null : transform.getPosition();
+        DeathRecord record = new DeathRecord(System.currentTimeMillis(), player.getUuid(), player.getDisplayName(),
+            causeName, resolveKillerName(component, store, causeName), resolveWorldName(store),
+            position == null ? Double.NaN : position.getX(),
+            position == null ? Double.NaN : position.getY(),
+            position == null ? Double.NaN : position.getZ(), metrics.start());
+        recordDeath(record);
+    }
 
-        sendNotification(causeName, subtitle, title);
-        displayDeathHudForAll(announcement.title(), announcement.subtitle(), resolveHudIconTexture(causeName));
-        broadcastDeathChat(announcement.subtitle());
+    /**
+     * Journals and counts {@code record} and queues it for announcement. Runs on the thread of the world the player
+     * died in.
+     */
+    void recordDeath(DeathRecord record) {
+        journal.append(record);
+        statistics.record(record.playerUuid(), record.playerName(), record.causeName());
+        pipeline.submit(record);
     }
+
     public CompletableFuture<Void> triggerNotification(String causeName, String playerName) {
-        DeathAnnouncement announcement = pickAnnouncement(playerName, causeName);
-        Message title = Message.raw(announcement.title());
-        Message subtitle = Message.raw(announcement.subtitle());
-        sendNotification(causeName, subtitle, title);
-        displayDeathHudForAll(announcement.title(), announcement.subtitle(), resolveHudIconTexture(causeName));
-        broadcastDeathChat(announcement.subtitle());
+        pipeline.submit(new DeathRecord(System.currentTimeMillis(), null, playerName, causeName, causeName, "",
+            Double.NaN, Double.NaN, Double.NaN, metrics.start()));
         return CompletableFuture.completedFuture(null);
     }
 
-    public Iterable<String> getSupportedCauses() {
-        return resolveRawDamageCauseIds();
+    private void announce(DeathRecord record) {
+        FlightRecorderEvents.DeathAnnounced event = new FlightRecorderEvents.DeathAnnounced();
+        event.begin();
+        CauseTable.ResolvedCause cause = dispatch(record, event);
+        if (event.shouldCommit()) {
+            event.player = record.playerName();
+            event.cause = record.causeName();
+            event.category = cause.category();
+            event.world = record.worldName();
+            event.commit();
+        }
     }
 
-    private DeathAnnouncement pickAnnouncement(String playerName, String causeName) {
-        String category = resolveCategory(causeName);
-        List<String> pool = localizationBundle.getLines(category);
-        String title = formatLine(pickLine(localizationBundle.getTitles()), playerName);
-        String subtitle = formatLine(pickLine(pool), playerName);
-        return new DeathAnnouncement(title, subtitle);
+    private CauseTable.ResolvedCause dispatch(DeathRecord record, FlightRecorderEvents.DeathAnnounced event) {
+        // Read once so the whole death is announced with one configuration, even across a reload.
+        RuntimeSettings settings = this.settings;
+        String causeName = record.causeName();
+        long resolveStart = metrics.start();
+        CauseTable.ResolvedCause cause = settings.causeTable().resolve(causeName);
+        metrics.record(AnnouncementMetrics.Stage.CAUSE_RESOLUTION, resolveStart);
+        metrics.increment(AnnouncementMetrics.Counter.DEATHS_ANNOUNCED);
+
+        String worldName = record.worldName();
+        RuntimeSettings.WorldSettings world = settings.forWorld(worldName);
+        boolean notify = world.notifications()
+            && tryAcquire(worldName, DeathRateLimiter.Channel.NOTIFICATION, cause.category());
+        boolean showHud = world.hud()
+            && tryAcquire(worldName, DeathRateLimiter.Channel.HUD, cause.category());
+        boolean chat = world.chat()
+            && tryAcquire(worldName, DeathRateLimiter.Channel.CHAT, cause.category());
+        event.notification = notify;
+        event.hud = showHud;
+        event.chat = chat;
+        deathLog.death(record, notify, showHud, chat);
+        if (!notify && !showHud && !chat) {
+            return cause;
+        }
+
+        AnnouncementTemplate.Arguments arguments = new AnnouncementTemplate.Arguments(record.playerName(),
+            record.killerName(), worldName, causeName, 1);
+        LocalizedRenderings<RenderedAnnouncement> announcement = new LocalizedRenderings<>(
+            timedRendering(bundle -> RenderedAnnouncement.pick(bundle, arguments, cause.category())));
+        DeliveryScope.Settings delivery = settings.delivery();
+        if (notify) {
+            sendNotification(settings, cause, announcement, DeliveryTarget.of(delivery.notification(), record),
+                record.capturedNanos());
+        }
+        if (showHud) {
+            displayDeathHud(announcement, cause.hudTexturePath(), DeliveryTarget.of(delivery.hud(), record),
+                record.capturedNanos());
+        }
+        if (chat) {
+            broadcastDeathChat(settings, announcement, DeliveryTarget.of(delivery.chat(), record),
+                record.capturedNanos());
+        }
+        return cause;
     }
 
-    private static String resolveCategory(String causeName) {
-        if (causeName.contains("projectile")) {
-            return "projectile";
-        }
-        if (causeName.contains("fall")) {
-            return "fall";
-        }
-        if (causeName.contains("drown")) {
-            return "drowning";
-        }
-        if (causeName.contains("suffocat")) {
-            return "suffocation";
-        }
-        if (causeName.contains("out_of_world") || causeName.contains("void")) {
-            return "out_of_world";
-        }
-        if (causeName.contains("fire")) {
-            return "fire";
-        }
-        if (causeName.contains("lava")) {
-            return "lava";
-        }
-        if (causeName.contains("explosion")) {
-            return "explosion";
-        }
-        if (causeName.contains("poison")) {
-            return "poison";
-        }
-        if (causeName.contains("freeze")) {
-            return "freeze";
-        }
-        if (causeName.contains("environment")) {
-            return "environment";
-        }
-        if (causeName.contains("command")) {
-            return "command";
+    private void announceSuppressedDeaths(String worldName,
+                                          DeathRateLimiter.Channel channel,
+                                          long suppressedDeaths,
+                                          String dominantCategory) {
+        RuntimeSettings settings = this.settings;
+        if (!settings.forWorld(worldName).enabled(channel)) {
+            return;
         }
-        if (causeName.contains("physical") || causeName.contains("melee") || causeName.contains("attack")) {
-            return "physical";
+        int count = (int) Math.min(Integer.MAX_VALUE, suppressedDeaths);
+        AnnouncementTemplate.Arguments arguments = new AnnouncementTemplate.Arguments("", "", worldName,
+            dominantCategory, count);
+        LocalizedRenderings<RenderedAnnouncement> summary = new LocalizedRenderings<>(timedRendering(
+            bundle -> RenderedAnnouncement.of(AnnouncementTemplate.pick(bundle.getSummaryTitles()).render(arguments),
+                AnnouncementTemplate.pick(bundle.getOverflowLines()).render(arguments))));
+        CauseTable.ResolvedCause cause = settings.causeTable().resolve(dominantCategory);
+        DeliveryTarget target = DeliveryTarget.ofWorld(settings.delivery().scope(channel), worldName);
+        metrics.increment(AnnouncementMetrics.Counter.SUMMARIES);
+        deathLog.suppressed(worldName, channel, suppressedDeaths, dominantCategory);
+        switch (channel) {
+            // Summaries stand for no single death, so they are not timed end to end.
+            case NOTIFICATION -> sendNotification(settings, cause, summary, target, AnnouncementMetrics.DISABLED);
+            case HUD -> displayDeathHud(summary, cause.hudTexturePath(), target, AnnouncementMetrics.DISABLED);
+            case CHAT -> broadcastDeathChat(settings, summary, target, AnnouncementMetrics.DISABLED);
         }
-        return "generic";
     }
 
-    private static String pickLine(List<String> options) {
-        if (options.isEmpty()) {
-            return "{player} fell.";
+    /**
+     * Counts a death the full pipeline could not take towards the rate-limit summaries of its world; runs on the
+     * world thread, so it only resolves the category and bumps counters.
+     */
+    private void summarizeOverflow(DeathRecord record) {
+        rateLimiter.suppress(record.worldName(), settings.causeTable().resolve(record.causeName()).category());
+    }
+
+    private boolean tryAcquire(String worldName, DeathRateLimiter.Channel channel, String category) {
+        if (rateLimiter.tryAcquire(worldName, channel, category)) {
+            return true;
         }
-        int index = ThreadLocalRandom.current().nextInt(options.size());
-        return options.get(index);
+        metrics.increment(AnnouncementMetrics.Counter.RATE_LIMITED);
+        return false;
     }
 
-    private static String formatLine(String template, String playerName) {
-        return template.replace("{player}", playerName);
+    private <T> Function<LocalizationBundle, T> timedRendering(Function<LocalizationBundle, T> renderer) {
+        return bundle -> {
+            long start = metrics.start();
+            T rendered = renderer.apply(bundle);
+            metrics.record(AnnouncementMetrics.Stage.TEMPLATE_RENDERING, start);
+            return rendered;
+        };
     }
 
-    private static ItemWithAllMetadata resolveFallbackNotificationIcon() {
-        ItemStack stack = new ItemStack(FALLBACK_NOTIFICATION_ITEM, 1);
-        return stack.toPacket();
+    public Iterable<String> getSupportedCauses() {
+        return supportedCauses;
+    }
+
+    CauseTable getCauseTable() {
+        return settings.causeTable();
+    }
+
+    PlayerPreferenceStore getPreferences() {
+        return preferences;
+    }
+
+    boolean supportsPlayerNotifications() {
+        return server.supportsPlayerNotifications();
+    }
+
+    DeathAnnouncementPipeline.Stats getPipelineStats() {
+        return pipeline.stats();
+    }
+
+    DeathJournal.Stats getJournalStats() {
+        return journal.stats();
+    }
+
+    DeathLog.Stats getDeathLogStats() {
+        return deathLog.stats();
+    }
+
+    DeathStatistics getStatistics() {
+        return statistics;
+    }
+
+    LocaleBundleCache getLocaleBundles() {
+        return localeBundles;
+    }
+
+    AnnouncementMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Bundle announcements for the player with {@code playerUuid} are rendered with; the server default for the
+     * console and for players who are not online.
+     */
+    LocalizationBundle bundleForPlayer(UUID playerUuid) {
+        RuntimeSettings settings = this.settings;
+        AnnouncementServer.Recipient player = playerUuid == null ? null : server.player(playerUuid);
+        return player == null ? localeBundles.defaultBundle() : bundleFor(settings, player);
+    }
+
+    /**
+     * Bundle used to render for {@code player}: the client's language when per-player language is enabled and
+     * already cached, the server default otherwise.
+     */
+    private LocalizationBundle bundleFor(RuntimeSettings settings, AnnouncementServer.Recipient player) {
+        return settings.perPlayerLanguage() ? localeBundles.bundleFor(player.language()) : localeBundles.defaultBundle();
     }
 
     private static String resolveCauseName(DeathComponent component) {
@@ -207,7 +294,30 @@ public final class DeathAnnouncementSystem extends DeathSystems.OnDeathSystem {
         if (cause != null) {
             return cause.getId().toLowerCase(Locale.ROOT);
         }
-        return resolveCauseNameFromDamage(component.getDeathInfo());
+        return DamageCauseProbe.resolveCauseName(component.getDeathInfo());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String resolveKillerName(DeathComponent component, Store store, String causeName) {
+        Damage deathInfo = component.getDeathInfo();
+        if (deathInfo != null && deathInfo.getSource() instanceof Damage.EntitySource entitySource) {
+            Ref<EntityStore> killerRef = entitySource.getRef();
+            if (killerRef != null && killerRef.isValid()) {
+                Player killer = (Player) store.getComponent(killerRef, Player.getComponentType());
+                if (killer != null) {
+                    return killer.getDisplayName();
+                }
+            }
+        }
+        return causeName;
+    }
+
+    private static String resolveWorldName(Store store) {
+        Object externalData = store.getExternalData();
+        if (externalData instanceof EntityStore entityStore && entityStore.getWorld() != null) {
+            return entityStore.getWorld().getName();
+        }
+        return "";
     }
 
     private static List<String> resolveRawDamageCauseIds() {
@@ -243,7 +353,7 @@ public final class DeathAnnouncementSystem extends DeathSystems.OnDeathSystem {
         }
 
         if (ids.isEmpty()) {
-            return List.copyOf(ICON_FILES.keySet());
+            return List.copyOf(CauseTable.ICON_FILES.keySet());
         }
 
         return ids.stream()
@@ -267,253 +377,348 @@ public final class DeathAnnouncementSystem extends DeathSystems.OnDeathSystem {
         return value.toString();
     }
 
-    private static String resolveCauseNameFromDamage(Damage deathInfo) {
-        if (deathInfo == null) {
-            return "";
+    private void sendNotification(RuntimeSettings settings,
+                                  CauseTable.ResolvedCause cause,
+                                  LocalizedRenderings<RenderedAnnouncement> announcement,
+                                  DeliveryTarget target,
+                                  long capturedNanos) {
+        // The notification shows the cause line prominently and the title underneath.
+        String iconPath = cause.notificationIconPath();
+        boolean broadcast = !settings.perPlayerLanguage() && target.scope() == DeliveryScope.UNIVERSE
+            && !preferences.hasOptOuts(DeathRateLimiter.Channel.NOTIFICATION);
+        if (broadcast || !server.supportsPlayerNotifications()) {
+            long start = metrics.start();
+            RenderedAnnouncement rendered = announcement.get(localeBundles.defaultBundle());
+            server.broadcastNotification(rendered.subtitleMessage(), rendered.titleMessage(), iconPath);
+            metrics.record(AnnouncementMetrics.Stage.NOTIFICATION_SEND, start);
+            metrics.record(AnnouncementMetrics.Stage.NOTIFICATION_DELIVERY, capturedNanos);
+            return;
         }
+        forEachRecipient(settings, target, AnnouncementMetrics.Stage.NOTIFICATION_FAN_OUT, (world, player) -> {
+            if (preferences.isMuted(player.uuid(), DeathRateLimiter.Channel.NOTIFICATION)) {
+                metrics.increment(AnnouncementMetrics.Counter.MUTED_SKIPS);
+                return;
+            }
+            long start = metrics.start();
+            RenderedAnnouncement rendered = announcement.get(bundleFor(settings, player));
+            player.sendNotification(rendered.subtitleMessage(), rendered.titleMessage(), iconPath);
+            metrics.record(AnnouncementMetrics.Stage.NOTIFICATION_SEND, start);
+            metrics.record(AnnouncementMetrics.Stage.NOTIFICATION_DELIVERY, capturedNanos);
+        });
+    }
 
-        String[] probes = {
-            "getCause",
-            "getSource",
-            "getDamageSource",
-            "getDamageType",
-            "getType"
-        };
+    private void displayDeathHud(LocalizedRenderings<RenderedAnnouncement> announcement,
+                                 String iconTexturePath,
+                                 DeliveryTarget target,
+                                 long capturedNanos) {
+        String safeIcon = iconTexturePath == null ? "" : iconTexturePath;
+        hudCoalescer.submit(announcement, safeIcon, target, capturedNanos);
+    }
 
-        for (String probe : probes) {
-            try {
-                Object value = deathInfo.getClass().getMethod(probe).invoke(deathInfo);
-                if (value == null) {
-                    continue;
-                }
-                if (value instanceof Enum<?> enumValue) {
-                    return enumValue.name().toLowerCase(Locale.ROOT);
-                }
-                if (value instanceof String text) {
-                    return text.toLowerCase(Locale.ROOT);
-                }
-                return value.getClass().getSimpleName().toLowerCase(Locale.ROOT);
-            } catch (ReflectiveOperationException ignored) {
-                // Try the next probe.
+    private void deliverDeathHud(DeathHudCoalescer.CoalescedDeaths<LocalizedRenderings<RenderedAnnouncement>> deaths) {
+        RuntimeSettings settings = this.settings;
+        // One payload per language present; spectators only bind their PlayerRef to it.
+        LocalizedRenderings<RenderedAnnouncement> latest = deaths.latest();
+        AnnouncementTemplate.Arguments summaryArguments = AnnouncementTemplate.Arguments.ofCount(deaths.count());
+        Function<LocalizationBundle, String> summaryTitle = deaths.count() >= settings.hudSummaryThreshold()
+            ? timedRendering(bundle -> AnnouncementTemplate.pick(bundle.getSummaryTitles()).render(summaryArguments))
+            : null;
+        String hudPath = hudResourcePath;
+        String safeIcon = deaths.iconTexturePath();
+        LocalizedRenderings<DeathHudPayload> payloads = new LocalizedRenderings<>(bundle -> {
+            RenderedAnnouncement rendered = latest.get(bundle);
+            String title = summaryTitle == null ? rendered.title() : summaryTitle.apply(bundle);
+            return DeathHudPayload.of(hudPath, title, rendered.subtitle(), safeIcon);
+        });
+
+        forEachSpectator(settings, deaths.targets(), (world, spectator) -> {
+            AnnouncementServer.Recipient player = spectator.recipient();
+            if (preferences.isMuted(player.uuid(), DeathRateLimiter.Channel.HUD)) {
+                metrics.increment(AnnouncementMetrics.Counter.MUTED_SKIPS);
+                return;
             }
-        }
 
-        return deathInfo.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+            long start = metrics.start();
+            showDeathHud(world, spectator, payloads.get(bundleFor(settings, player)), deaths.count(),
+                settings.forWorld(world.name()).hudDisplayMillis(), deaths.firstCapturedNanos());
+            metrics.record(AnnouncementMetrics.Stage.HUD_SPECTATOR, start);
+        });
     }
 
-    private static void logDeath(Player player, String causeName) {
-        LOGGER.info(String.format("Player %s died (%s)", player.getDisplayName(), causeName));
+    /**
+     * Runs {@code action} on each world thread for every player covered by {@code target}. Radius targets only
+     * visit the spatial index cells around the death position. Each world's share is timed as {@code fanOutStage}.
+     */
+    private void forEachRecipient(RuntimeSettings settings,
+                                  DeliveryTarget target,
+                                  AnnouncementMetrics.Stage fanOutStage,
+                                  BiConsumer<AnnouncementServer.GameWorld, AnnouncementServer.Recipient> action) {
+        forEachTargetWorld(settings, target, fanOutStage, world -> forEachPlayer(world, action),
+            (world, radius) -> spatialIndex.forEachNear(world, target.x(), target.z(), radius,
+                player -> action.accept(world, player)));
     }
 
-    private void sendNotification(String causeName, Message notificationTitle, Message notificationSubtitle) {
-        if (!notificationsEnabled) {
+    /**
+     * Like {@link #forEachRecipient}, but visits the registered HUD spectators so no per-player component lookups
+     * are needed. {@code targets} come from one coalescing window; radius targets reach the players near any of them.
+     */
+    private void forEachSpectator(RuntimeSettings settings,
+                                  List<DeliveryTarget> targets,
+                                  BiConsumer<AnnouncementServer.GameWorld, SpectatorRegistry.Spectator> action) {
+        DeliveryTarget target = targets.get(targets.size() - 1);
+        double[] centres = new double[targets.size() * 2];
+        for (int i = 0; i < targets.size(); i++) {
+            centres[2 * i] = targets.get(i).x();
+            centres[2 * i + 1] = targets.get(i).z();
+        }
+        forEachTargetWorld(settings, target, AnnouncementMetrics.Stage.HUD_FAN_OUT, world -> {
+            SpectatorRegistry.Spectator[] handles = spectators.spectators(world);
+            for (SpectatorRegistry.Spectator spectator : handles) {
+                action.accept(world, spectator);
+            }
+            return handles.length;
+        }, (world, radius) -> spatialIndex.forEachNear(world, centres, radius, player -> {
+            SpectatorRegistry.Spectator spectator = spectators.find(world, player.uuid());
+            if (spectator != null) {
+                action.accept(world, spectator);
+            }
+        }));
+    }
+
+    /**
+     * Runs {@code wholeWorld} on the thread of every world covered by {@code target}, or {@code nearby} with the
+     * scope radius for radius targets. Both return the number of players they visited.
+     */
+    private void forEachTargetWorld(RuntimeSettings settings,
+                                    DeliveryTarget target,
+                                    AnnouncementMetrics.Stage fanOutStage,
+                                    ToIntFunction<AnnouncementServer.GameWorld> wholeWorld,
+                                    NearbyFanOut nearby) {
+        if (target.scope() == DeliveryScope.UNIVERSE) {
+            for (AnnouncementServer.GameWorld world : server.worlds()) {
+                world.execute(fanOut(fanOutStage, world, wholeWorld));
+            }
             return;
         }
 
-        String iconPath = resolveNotificationIconPath(causeName);
-        if (trySendNotificationWithIconPath(notificationTitle, notificationSubtitle, iconPath)) {
+        AnnouncementServer.GameWorld world = server.world(target.worldName());
+        if (world == null) {
             return;
         }
-
-        NotificationUtil.sendNotificationToUniverse(
-            notificationTitle,
-            notificationSubtitle,
-            null,
-            resolveFallbackNotificationIcon(),
-            NotificationStyle.Danger
-        );
-    }
-
-    private void displayDeathHudForAll(String titleText, String subtitleText, String iconTexturePath) {
-        if (!hudNotificationsEnabled) {
+        if (target.scope() == DeliveryScope.WORLD) {
+            world.execute(fanOut(fanOutStage, world, wholeWorld));
             return;
         }
+        double radius = settings.delivery().radius();
+        world.execute(fanOut(fanOutStage, world, inWorld -> nearby.visit(inWorld, radius)));
+    }
 
-        String safeTitle = titleText == null ? "" : titleText;
-        String safeSubtitle = subtitleText == null ? "" : subtitleText;
-        String safeIcon = iconTexturePath == null ? "" : iconTexturePath;
-
-        Collection<World> worlds = Universe.get().getWorlds().values();
-        for (World world : worlds) {
-            if (world == null) {
-                continue;
+    /**
+     * Wraps one world's share of a fan-out so it is timed as {@code stage} and recorded as an
+     * {@link FlightRecorderEvents.AnnouncementFanOut} on the world thread.
+     */
+    private Runnable fanOut(AnnouncementMetrics.Stage stage,
+                            AnnouncementServer.GameWorld world,
+                            ToIntFunction<AnnouncementServer.GameWorld> task) {
+        return () -> {
+            FlightRecorderEvents.AnnouncementFanOut event = new FlightRecorderEvents.AnnouncementFanOut();
+            event.begin();
+            long start = metrics.start();
+            int recipients = task.applyAsInt(world);
+            metrics.record(stage, start);
+            if (event.shouldCommit()) {
+                event.stage = stage.configName();
+                event.world = world.name();
+                event.recipients = recipients;
+                event.commit();
             }
-
-            world.execute(() -> {
-                for (PlayerRef playerRef : world.getPlayerRefs()) {
-                    if (playerRef == null) {
-                        continue;
-                    }
-
-                    Ref<EntityStore> playerEntityRef = playerRef.getReference();
-                    if (playerEntityRef == null) {
-                        continue;
-                    }
-
-                    Store<EntityStore> entityStore = playerEntityRef.getStore();
-                    if (entityStore == null) {
-                        continue;
-                    }
-
-                    Player spectator = entityStore.getComponent(playerEntityRef, Player.getComponentType());
-                    if (spectator == null) {
-                        continue;
-                    }
-
-                    if (spectator.getHudManager() == null) {
-                        continue;
-                    }
-
-                    showDeathHud(world, spectator, playerRef, safeTitle, safeSubtitle, safeIcon);
-                }
-            });
-        }
+        };
     }
 
-    private void showDeathHud(World world,
-                              Player player,
-                              PlayerRef playerRef,
-                              String titleText,
-                              String subtitleText,
-                              String iconTexturePath) {
-        if (world == null || playerRef == null || player == null) {
-            return;
+    private static int forEachPlayer(AnnouncementServer.GameWorld world,
+                                     BiConsumer<AnnouncementServer.GameWorld, AnnouncementServer.Recipient> action) {
+        List<? extends AnnouncementServer.Recipient> players = world.players();
+        for (AnnouncementServer.Recipient player : players) {
+            action.accept(world, player);
         }
+        return players.size();
+    }
 
+    private void showDeathHud(AnnouncementServer.GameWorld world,
+                              SpectatorRegistry.Spectator spectator,
+                              DeathHudPayload payload,
+                              int deaths,
+                              long displayMillis,
+                              long capturedNanos) {
+        AnnouncementServer.Recipient player = spectator.recipient();
+        AnnouncementServer.HudHolder holder = spectator.holder();
+        FlightRecorderEvents.HudShown event = new FlightRecorderEvents.HudShown();
+        event.begin();
         try {
-            DeathNotificationHud hud = new DeathNotificationHud(playerRef, titleText, subtitleText, hudResourcePath, iconTexturePath);
-            MultipleHUD multipleHUD = MultipleHUD.getInstance();
-            if (multipleHUD == null) {
-                return;
+            // A HUD that is still mounted for this player entity only receives the changed properties.
+            MountedHud mounted = mountedHuds.get(player.uuid());
+            boolean patched = mounted != null && mounted.holder().equals(holder) && mounted.world().equals(world)
+                && mounted.hud().patch(payload);
+            if (patched) {
+                metrics.increment(AnnouncementMetrics.Counter.HUD_PATCHES);
+            } else {
+                AnnouncementServer.DeathHud hud = holder.mount(payload);
+                if (hud == null) {
+                    return;
+                }
+                mountedHuds.put(player.uuid(), new MountedHud(holder, world, hud));
+            }
+            scheduleHudReset(world, holder, player, displayMillis);
+            metrics.record(AnnouncementMetrics.Stage.HUD_DELIVERY, capturedNanos);
+            if (event.shouldCommit()) {
+                event.player = player.username();
+                event.world = world.name();
+                event.icon = payload.iconTexturePath();
+                event.deaths = deaths;
+                event.patched = patched;
+                event.commit();
             }
-            multipleHUD.setCustomHud(player, playerRef, HUD_KEY, hud);
-            scheduleHudReset(world, player, playerRef);
         } catch (RuntimeException ex) {
-            String username = playerRef.getUsername();
-            String identifier = username != null ? username : playerRef.getUuid().toString();
+            mountedHuds.remove(player.uuid());
+            String username = player.username();
+            String identifier = username != null ? username : player.uuid().toString();
             LOGGER.log(Level.WARNING, String.format("Failed to display death HUD for %s; the HUD packet was not sent.",
                 identifier), ex);
         }
     }
 
-    private static String resolveHudIconTexture(String causeName) {
-        return HUD_ICON_PREFIX + resolveIconFile(causeName);
+    private void scheduleHudReset(AnnouncementServer.GameWorld world,
+                                  AnnouncementServer.HudHolder holder,
+                                  AnnouncementServer.Recipient player,
+                                  long displayMillis) {
+        long start = metrics.start();
+        hudResetWheel.schedule(player.uuid(), holder, world, displayMillis);
+        metrics.record(AnnouncementMetrics.Stage.HUD_RESET_SCHEDULING, start);
     }
 
-    private static String resolveNotificationIconPath(String causeName) {
-        return NOTIFICATION_ICON_PREFIX + resolveIconFile(causeName);
-    }
-
-    private static String resolveIconFile(String causeName) {
-        String key = causeName == null ? "" : causeName;
-        String direct = ICON_FILES.get(key);
-        if (direct != null) {
-            return direct;
-        }
-        String category = resolveCategory(key);
-        return ICON_FILES.getOrDefault(category, "physical.png");
-    }
-
-    private boolean trySendNotificationWithIconPath(Message notificationTitle,
-                                                    Message notificationSubtitle,
-                                                    String iconPath) {
-        if (iconPath == null || iconPath.isBlank()) {
-            return false;
-        }
-
-        try {
-            var method = NotificationUtil.class.getMethod(
-                "sendNotificationToUniverse",
-                Message.class,
-                Message.class,
-                String.class,
-                ItemWithAllMetadata.class,
-                NotificationStyle.class
-            );
-            method.invoke(null, notificationTitle, notificationSubtitle, iconPath, null, NotificationStyle.Danger);
-            return true;
-        } catch (ReflectiveOperationException ignored) {
-            // Try a smaller overload below.
-        }
-
-        try {
-            var method = NotificationUtil.class.getMethod(
-                "sendNotificationToUniverse",
-                Message.class,
-                String.class,
-                NotificationStyle.class
-            );
-            method.invoke(null, notificationTitle, iconPath, NotificationStyle.Danger);
-            return true;
-        } catch (ReflectiveOperationException ignored) {
-            return false;
-        }
-    }
-
-    private void scheduleHudReset(World world, Player player, PlayerRef playerRef) {
-        if (world == null || playerRef == null || player == null) {
-            return;
-        }
-
-        ScheduledFuture<?> previous = hudResetTasks.remove(playerRef);
-        if (previous != null) {
-            previous.cancel(false);
-        }
-
-        AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
-        long delaySeconds = Math.max(1L, hudDisplaySeconds);
-        ScheduledFuture<?> future = hudResetScheduler.schedule(() -> {
-            world.execute(() -> {
-                MultipleHUD multipleHUD = MultipleHUD.getInstance();
-                if (multipleHUD == null) {
-                    return;
+    private void hideExpiredHuds(AnnouncementServer.GameWorld world, List<HudResetWheel.Expired> expired) {
+        world.execute(() -> {
+            FlightRecorderEvents.HudReset event = new FlightRecorderEvents.HudReset();
+            event.begin();
+            int hidden = 0;
+            for (HudResetWheel.Expired hud : expired) {
+                // Shown again on this thread after the lease expired: keep it mounted for the new lease.
+                if (hudResetWheel.isScheduled(hud.playerUuid())) {
+                    continue;
                 }
-                multipleHUD.hideCustomHud(player, HUD_KEY);
-            });
-            hudResetTasks.remove(playerRef, futureRef.get());
-        }, delaySeconds, TimeUnit.SECONDS);
-        futureRef.set(future);
-        hudResetTasks.put(playerRef, future);
+                mountedHuds.remove(hud.playerUuid());
+                hud.holder().hide();
+                hidden++;
+            }
+            if (event.shouldCommit()) {
+                event.world = world.name();
+                event.players = hidden;
+                event.commit();
+            }
+        });
     }
 
     public void shutdown() {
-        hudResetScheduler.shutdownNow();
-        hudResetTasks.clear();
+        pipeline.shutdown();
+        rateLimiter.shutdown();
+        spatialIndex.shutdown();
+        hudCoalescer.shutdown();
+        hudResetWheel.shutdown();
+        mountedHuds.clear();
+        spectators.clear();
+        localeBundles.shutdown();
     }
 
-    public void updateLocalizationBundle(LocalizationBundle newBundle) {
-        this.localizationBundle = Objects.requireNonNull(newBundle, "newBundle");
+    /**
+     * {@code player} entered or finished loading {@code world}; its HUD handle is resolved on the next fan-out there.
+     */
+    public void onPlayerJoinedWorld(World world, Player player) {
+        UUID playerUuid = player == null ? null : player.getUuid();
+        spectators.added(world == null ? null : world.getName(), playerUuid);
     }
 
-    public void setNotificationsEnabled(boolean enabled) {
-        this.notificationsEnabled = enabled;
+    /**
+     * {@code player} is leaving {@code world}, either to another world or because it disconnects. Its HUD state in
+     * that world is dropped so the pending reset no longer keeps the entity and world reachable.
+     */
+    public void onPlayerLeftWorld(World world, Player player) {
+        String worldName = world == null ? null : world.getName();
+        UUID playerUuid = player == null ? null : player.getUuid();
+        spectators.removed(worldName, playerUuid);
+        if (playerUuid != null && worldName != null) {
+            hudResetWheel.cancel(playerUuid, worldName);
+            mountedHuds.computeIfPresent(playerUuid,
+                (ignored, mounted) -> mounted.world().name().equals(worldName) ? null : mounted);
+        }
     }
 
-    private void broadcastDeathChat(String text) {
-        if (!chatNotificationsEnabled) {
-            return;
+    public void onPlayerDisconnected(PlayerRef playerRef) {
+        UUID playerUuid = playerRef == null ? null : playerRef.getUuid();
+        if (playerUuid != null) {
+            hudResetWheel.cancel(playerUuid);
+            mountedHuds.remove(playerUuid);
         }
-
-        Message header = Message
-            .raw("[DEATH] ")
-            .color(new Color(255, 60, 60))
-            .bold(true);
-        Message body = Message.raw(text);
-        Universe.get().sendMessage(Message.empty().insertAll(header, body));
+        spectators.removedEverywhere(playerUuid);
     }
 
-    public void setChatNotificationsEnabled(boolean enabled) {
-        this.chatNotificationsEnabled = enabled;
+    /**
+     * Applies a reloaded configuration. {@code bundle} is the new server default bundle, or {@code null} when the
+     * default language is unchanged; {@code changedLanguages} are localization files edited since the last reload,
+     * whose cached bundles are dropped. Settings read per death are published as one {@link RuntimeSettings}
+     * snapshot, after the components that keep their own state have been reconfigured.
+     */
+    public void applyConfiguration(DeathAnnouncerConfig config,
+                                   LocalizationBundle bundle,
+                                   Collection<String> changedLanguages) {
+        Objects.requireNonNull(config, "config");
+        Objects.requireNonNull(changedLanguages, "changedLanguages");
+        RuntimeSettings next = RuntimeSettings.of(config, settings.causeTable());
+        if (bundle != null || config.getLocaleCacheSize() != localeBundles.capacity()) {
+            localeBundles.reset(bundle == null ? localeBundles.defaultBundle() : bundle, config.getLocaleCacheSize());
+        } else {
+            localeBundles.invalidate(changedLanguages);
+        }
+        hudCoalescer.setWindowMillis(config.getHudCoalesceMillis());
+        pipeline.setOverflowPolicy(config.getPipelineOverflowPolicy());
+        rateLimiter.configure(config.getRateLimitSettings());
+        spatialIndex.setEnabled(next.delivery().usesRadius());
+        settings = next;
     }
 
-    public void setHudNotificationsEnabled(boolean enabled) {
-        this.hudNotificationsEnabled = enabled;
+    private void broadcastDeathChat(RuntimeSettings settings,
+                                    LocalizedRenderings<RenderedAnnouncement> announcement,
+                                    DeliveryTarget target,
+                                    long capturedNanos) {
+        if (!settings.perPlayerLanguage() && target.scope() == DeliveryScope.UNIVERSE
+            && !preferences.hasOptOuts(DeathRateLimiter.Channel.CHAT)) {
+            long start = metrics.start();
+            server.broadcastChat(announcement.get(localeBundles.defaultBundle()).chatMessage());
+            metrics.record(AnnouncementMetrics.Stage.CHAT_SEND, start);
+            metrics.record(AnnouncementMetrics.Stage.CHAT_DELIVERY, capturedNanos);
+            return;
+        }
+        forEachRecipient(settings, target, AnnouncementMetrics.Stage.CHAT_FAN_OUT, (world, player) -> {
+            if (preferences.isMuted(player.uuid(), DeathRateLimiter.Channel.CHAT)) {
+                metrics.increment(AnnouncementMetrics.Counter.MUTED_SKIPS);
+                return;
+            }
+            long start = metrics.start();
+            player.sendMessage(announcement.get(bundleFor(settings, player)).chatMessage());
+            metrics.record(AnnouncementMetrics.Stage.CHAT_SEND, start);
+            metrics.record(AnnouncementMetrics.Stage.CHAT_DELIVERY, capturedNanos);
+        });
     }
 
-    public void setHudDisplaySeconds(long seconds) {
-        this.hudDisplaySeconds = Math.max(1L, seconds);
+    @FunctionalInterface
+    private interface NearbyFanOut {
+        int visit(AnnouncementServer.GameWorld world, double radius);
     }
 
-    private record DeathAnnouncement(String title, String subtitle) {
+    /**
+     * Death HUD currently mounted for a player; only valid for the player entity and world it was mounted in.
+     */
+    private record MountedHud(AnnouncementServer.HudHolder holder,
+                              AnnouncementServer.GameWorld world,
+                              AnnouncementServer.DeathHud hud) {
     }
 }
@@ -3,7 +3,12 @@ package com.bumenfeld;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandSender;
 import com.hypixel.hytale.event.EventPriority;
+import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.BootEvent;
+import com.hypixel.hytale.server.core.event.events.player.AddPlayerToWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.DrainPlayerFromWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -14,13 +19,25 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public final class DeathAnnouncer extends JavaPlugin {
     private static final Logger LOGGER = Logger.getLogger(DeathAnnouncer.class.getName());
     private DeathAnnouncementSystem deathAnnouncementSystem;
     private LocalizationManager localizationManager;
-    private DeathAnnouncerConfig currentConfig;
+    private volatile DeathAnnouncerConfig currentConfig;
+    private PlayerPreferenceStore preferences;
+    private DeathJournal journal;
+    private DeathStatistics statistics;
+    private DeathLog deathLog;
+    private AnnouncementMetrics metrics;
+    private ConfigurationReloader reloader;
+    private ConfigWriter configWriter;
 
     public DeathAnnouncer(JavaPluginInit init) {
         super(init);
@@ -37,22 +54,77 @@ public final class DeathAnnouncer extends JavaPlugin {
         localizationManager = new LocalizationManager(dataDirectory);
         LocalizationBundle bundle = localizationManager.load(config.getLanguage());
         String uiPath = "death_notification.ui";
-        deathAnnouncementSystem = new DeathAnnouncementSystem(bundle, config.areNotificationsEnabled(),
-            config.areChatNotificationsEnabled(), uiPath, config.getHudDisplaySeconds(),
-            config.areHudNotificationsEnabled());
+        preferences = PlayerPreferenceStore.load(dataDirectory);
+        journal = DeathJournal.open(dataDirectory, config.getJournalSettings());
+        statistics = DeathStatistics.load(dataDirectory);
+        deathLog = DeathLog.open(dataDirectory, config.getDeathLogVerbosity());
+        metrics = new AnnouncementMetrics(dataDirectory, config.getMetricsSettings());
+        NotificationDispatcher notificationDispatcher = NotificationDispatcher.probe();
+        LOGGER.info("Death notifications use the " + notificationDispatcher.getStrategy().description());
+        if (!notificationDispatcher.supportsPlayerTargets()) {
+            LOGGER.info("Per-player notifications are unavailable; notification-scope falls back to universe.");
+        }
+        LocaleBundleCache localeBundles = new LocaleBundleCache(localizationManager, bundle,
+            config.getLocaleCacheSize());
+        deathAnnouncementSystem = new DeathAnnouncementSystem(localeBundles, config, uiPath,
+            new UniverseServer(notificationDispatcher), preferences, journal, statistics, deathLog, metrics);
         currentConfig = config;
         getEntityStoreRegistry().registerSystem(deathAnnouncementSystem);
+        registerPlayerLifecycle(deathAnnouncementSystem);
+        reloader = ConfigurationReloader.start(dataDirectory, this::reloadFromDisk);
+        configWriter = new ConfigWriter(dataDirectory, reloader, () -> currentConfig,
+            updated -> applyConfiguration(updated, Set.of(), null));
         getCommandRegistry().registerCommand(new DeathNotificationCommand(this, deathAnnouncementSystem));
     }
 
     @Override
     protected void shutdown() {
+        if (reloader != null) {
+            reloader.shutdown();
+        }
         if (deathAnnouncementSystem != null) {
             deathAnnouncementSystem.shutdown();
         }
+        if (preferences != null) {
+            preferences.shutdown();
+        }
+        if (journal != null) {
+            journal.shutdown();
+        }
+        if (statistics != null) {
+            statistics.shutdown();
+        }
+        if (deathLog != null) {
+            deathLog.shutdown();
+        }
+        if (metrics != null) {
+            metrics.shutdown();
+        }
         super.shutdown();
     }
 
+    /**
+     * Keeps the HUD spectator registry and pending HUD resets in step with players joining, changing worlds and
+     * leaving.
+     */
+    private void registerPlayerLifecycle(DeathAnnouncementSystem system) {
+        getEventRegistry().registerGlobal(AddPlayerToWorldEvent.class, event -> {
+            Player player = event.getHolder() == null ? null : event.getHolder().getComponent(Player.getComponentType());
+            system.onPlayerJoinedWorld(event.getWorld(), player);
+        });
+        getEventRegistry().registerGlobal(PlayerReadyEvent.class, event -> {
+            Player player = event.getPlayer();
+            if (player != null) {
+                system.onPlayerJoinedWorld(player.getWorld(), player);
+            }
+        });
+        getEventRegistry().registerGlobal(DrainPlayerFromWorldEvent.class, event -> {
+            Player player = event.getHolder() == null ? null : event.getHolder().getComponent(Player.getComponentType());
+            system.onPlayerLeftWorld(event.getWorld(), player);
+        });
+        getEventRegistry().register(PlayerDisconnectEvent.class, event -> system.onPlayerDisconnected(event.getPlayerRef()));
+    }
+
     private void ensureDefaultData(Path dataDirectory) {
         try {
             Files.createDirectories(dataDirectory);
@@ -150,19 +222,88 @@ public final class DeathAnnouncer extends JavaPlugin {
         }
     }
 
-    public void reloadConfiguration(CommandSender sender) {
-        DeathAnnouncerConfig config = DeathAnnouncerConfig.load(getDataDirectory());
-        LocalizationBundle bundle = localizationManager.load(config.getLanguage());
-        deathAnnouncementSystem.updateLocalizationBundle(bundle);
-        deathAnnouncementSystem.setNotificationsEnabled(config.areNotificationsEnabled());
-        deathAnnouncementSystem.setChatNotificationsEnabled(config.areChatNotificationsEnabled());
-        deathAnnouncementSystem.setHudNotificationsEnabled(config.areHudNotificationsEnabled());
-        deathAnnouncementSystem.setHudDisplaySeconds(config.getHudDisplaySeconds());
+    /**
+     * Reads {@code config.yml} and every localization file again and applies them on the reloader thread.
+     */
+    public CompletableFuture<Void> reloadConfiguration(CommandSender sender) {
+        return reloader.submit(() -> applyConfiguration(DeathAnnouncerConfig.read(getDataDirectory()), null, sender));
+    }
+
+    /**
+     * Applies {@code edit} to the newest configuration, saves it to {@code config.yml} and applies the settings that
+     * differ from the running ones, without reading the file back. The future completes once the change is durable
+     * and live, or fails when the file cannot be written.
+     */
+    public CompletableFuture<Void> updateConfiguration(UnaryOperator<DeathAnnouncerConfig> edit) {
+        return configWriter.update(edit);
+    }
+
+    /**
+     * Applies changes the reloader found on disk.
+     */
+    private void reloadFromDisk(boolean configChanged, Set<String> changedLanguages) {
+        DeathAnnouncerConfig config = currentConfig;
+        if (configChanged) {
+            try {
+                config = DeathAnnouncerConfig.read(getDataDirectory());
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Keeping the running configuration", ex);
+            }
+        }
+        applyConfiguration(config, changedLanguages, null);
+    }
+
+    /**
+     * Applies the parts of {@code config} that differ from the running configuration. The default localization is
+     * only loaded again when the language or its file changed; other edited languages are just evicted from the
+     * locale cache. {@code changedLanguages} is {@code null} to reload every language.
+     */
+    private void applyConfiguration(DeathAnnouncerConfig config, Set<String> changedLanguages, CommandSender sender) {
+        DeathAnnouncerConfig previous = currentConfig;
+        Set<String> changedKeys = previous.changedKeys(config);
+        boolean reloadAll = changedLanguages == null;
+        if (!reloadAll && changedKeys.isEmpty() && changedLanguages.isEmpty()) {
+            return;
+        }
+
+        LocalizationBundle bundle = null;
+        FlightRecorderEvents.LocalizationReloaded event = null;
+        if (reloadAll || changedKeys.contains("language") || changedLanguages.contains(config.getLanguage())) {
+            event = new FlightRecorderEvents.LocalizationReloaded();
+            event.begin();
+            bundle = localizationManager.load(config.getLanguage());
+        }
+        deathAnnouncementSystem.applyConfiguration(config, bundle, reloadAll ? Set.of() : changedLanguages);
+        if (event != null && event.shouldCommit()) {
+            event.language = config.getLanguage();
+            event.localeCacheSize = config.getLocaleCacheSize();
+            event.commit();
+        }
+        if (reloadAll || changedKeys.contains("metrics-enabled") || changedKeys.contains("metrics-snapshot-seconds")) {
+            metrics.configure(config.getMetricsSettings());
+        }
+        if (reloadAll || changedKeys.contains("death-log")) {
+            deathLog.setVerbosity(config.getDeathLogVerbosity());
+        }
         currentConfig = config;
-        String feedback = String.format("Death announcer configuration reloaded (language=%s)", config.getLanguage());
-        Message message = Message.raw(feedback);
+
+        Set<String> restartKeys = new LinkedHashSet<>(changedKeys);
+        restartKeys.retainAll(DeathAnnouncerConfig.RESTART_KEYS);
+        String feedback;
+        if (reloadAll) {
+            feedback = String.format("Death announcer configuration reloaded (language=%s)", config.getLanguage());
+        } else {
+            Set<String> applied = new LinkedHashSet<>(changedKeys);
+            applied.removeAll(DeathAnnouncerConfig.RESTART_KEYS);
+            changedLanguages.forEach(language -> applied.add("localization/" + language + ".json"));
+            feedback = applied.isEmpty() ? "Death announcer configuration changed"
+                : "Death announcer applied changes to " + String.join(", ", applied);
+        }
+        if (!restartKeys.isEmpty()) {
+            feedback += "; " + String.join(", ", restartKeys) + " take effect after restart";
+        }
         if (sender != null) {
-            sender.sendMessage(message);
+            sender.sendMessage(Message.raw(feedback));
         }
         LOGGER.info(feedback);
     }
@@ -1,35 +1,144 @@
 package com.bumenfeld;
 
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public final class DeathAnnouncerConfig {
+    private static final Logger LOGGER = Logger.getLogger(DeathAnnouncerConfig.class.getName());
     private static final String DEFAULT_LANGUAGE = "en";
     private static final boolean DEFAULT_NOTIFICATIONS = true;
     private static final boolean DEFAULT_CHAT_NOTIFICATIONS = true;
     private static final boolean DEFAULT_HUD_NOTIFICATIONS = true;
     private static final long DEFAULT_HUD_DISPLAY_SECONDS = 4;
+    private static final long DEFAULT_HUD_COALESCE_MILLIS = 50;
+    private static final int DEFAULT_HUD_SUMMARY_THRESHOLD = 3;
+    private static final int DEFAULT_PIPELINE_QUEUE_CAPACITY = 1024;
+    private static final DeathAnnouncementPipeline.OverflowPolicy DEFAULT_PIPELINE_OVERFLOW_POLICY =
+        DeathAnnouncementPipeline.OverflowPolicy.DROP_NEWEST;
+    private static final long DEFAULT_NOTIFICATION_RATE_LIMIT = 2;
+    private static final long DEFAULT_HUD_RATE_LIMIT = 5;
+    private static final long DEFAULT_CHAT_RATE_LIMIT = 3;
+    private static final long DEFAULT_RATE_LIMIT_BURST = 10;
+    private static final long DEFAULT_RATE_LIMIT_SUMMARY_SECONDS = 5;
+    private static final DeliveryScope DEFAULT_NOTIFICATION_SCOPE = DeliveryScope.UNIVERSE;
+    private static final DeliveryScope DEFAULT_HUD_SCOPE = DeliveryScope.UNIVERSE;
+    private static final DeliveryScope DEFAULT_CHAT_SCOPE = DeliveryScope.UNIVERSE;
+    private static final long DEFAULT_SCOPE_RADIUS = 256;
+    private static final boolean DEFAULT_JOURNAL_ENABLED = true;
+    private static final long DEFAULT_JOURNAL_SEGMENT_MEGABYTES = 16;
+    private static final int DEFAULT_JOURNAL_RETAINED_SEGMENTS = 8;
+    private static final boolean DEFAULT_PER_PLAYER_LANGUAGE = true;
+    private static final int DEFAULT_LOCALE_CACHE_SIZE = 8;
+    private static final boolean DEFAULT_METRICS_ENABLED = true;
+    private static final long DEFAULT_METRICS_SNAPSHOT_SECONDS = 60;
+    private static final DeathLog.Verbosity DEFAULT_DEATH_LOG_VERBOSITY = DeathLog.Verbosity.DEATHS;
+    private static final List<RuntimeSettings.WorldOverride> DEFAULT_WORLD_OVERRIDES = List.of();
+    /**
+     * Keys read only while the plugin starts; a changed value is kept in the configuration but not applied.
+     */
+    static final Set<String> RESTART_KEYS = Set.of("pipeline-queue-capacity", "journal-enabled",
+        "journal-segment-megabytes", "journal-retained-segments");
     private final String language;
     private final boolean notificationsEnabled;
     private final boolean chatNotificationsEnabled;
     private final boolean hudNotificationsEnabled;
     private final long hudDisplaySeconds;
+    private final long hudCoalesceMillis;
+    private final int hudSummaryThreshold;
+    private final int pipelineQueueCapacity;
+    private final DeathAnnouncementPipeline.OverflowPolicy pipelineOverflowPolicy;
+    private final long notificationRateLimit;
+    private final long hudRateLimit;
+    private final long chatRateLimit;
+    private final long rateLimitBurst;
+    private final long rateLimitSummarySeconds;
+    private final DeliveryScope notificationScope;
+    private final DeliveryScope hudScope;
+    private final DeliveryScope chatScope;
+    private final long scopeRadius;
+    private final boolean journalEnabled;
+    private final long journalSegmentMegabytes;
+    private final int journalRetainedSegments;
+    private final boolean perPlayerLanguage;
+    private final int localeCacheSize;
+    private final boolean metricsEnabled;
+    private final long metricsSnapshotSeconds;
+    private final DeathLog.Verbosity deathLogVerbosity;
+    private final List<RuntimeSettings.WorldOverride> worldOverrides;
 
     private DeathAnnouncerConfig(String language,
                                  boolean notificationsEnabled,
                                  boolean chatNotificationsEnabled,
                                  boolean hudNotificationsEnabled,
-                                 long hudDisplaySeconds) {
+                                 long hudDisplaySeconds,
+                                 long hudCoalesceMillis,
+                                 int hudSummaryThreshold,
+                                 int pipelineQueueCapacity,
+                                 DeathAnnouncementPipeline.OverflowPolicy pipelineOverflowPolicy,
+                                 long notificationRateLimit,
+                                 long hudRateLimit,
+                                 long chatRateLimit,
+                                 long rateLimitBurst,
+                                 long rateLimitSummarySeconds,
+                                 DeliveryScope notificationScope,
+                                 DeliveryScope hudScope,
+                                 DeliveryScope chatScope,
+                                 long scopeRadius,
+                                 boolean journalEnabled,
+                                 long journalSegmentMegabytes,
+                                 int journalRetainedSegments,
+                                 boolean perPlayerLanguage,
+                                 int localeCacheSize,
+                                 boolean metricsEnabled,
+                                 long metricsSnapshotSeconds,
+                                 DeathLog.Verbosity deathLogVerbosity,
+                                 List<RuntimeSettings.WorldOverride> worldOverrides) {
         this.language = language;
         this.notificationsEnabled = notificationsEnabled;
         this.chatNotificationsEnabled = chatNotificationsEnabled;
         this.hudNotificationsEnabled = hudNotificationsEnabled;
         this.hudDisplaySeconds = hudDisplaySeconds;
+        this.hudCoalesceMillis = hudCoalesceMillis;
+        this.hudSummaryThreshold = hudSummaryThreshold;
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+        this.pipelineOverflowPolicy = pipelineOverflowPolicy;
+        this.notificationRateLimit = notificationRateLimit;
+        this.hudRateLimit = hudRateLimit;
+        this.chatRateLimit = chatRateLimit;
+        this.rateLimitBurst = rateLimitBurst;
+        this.rateLimitSummarySeconds = rateLimitSummarySeconds;
+        this.notificationScope = notificationScope;
+        this.hudScope = hudScope;
+        this.chatScope = chatScope;
+        this.scopeRadius = scopeRadius;
+        this.journalEnabled = journalEnabled;
+        this.journalSegmentMegabytes = journalSegmentMegabytes;
+        this.journalRetainedSegments = journalRetainedSegments;
+        this.perPlayerLanguage = perPlayerLanguage;
+        this.localeCacheSize = localeCacheSize;
+        this.metricsEnabled = metricsEnabled;
+        this.metricsSnapshotSeconds = metricsSnapshotSeconds;
+        this.deathLogVerbosity = deathLogVerbosity;
+        this.worldOverrides = worldOverrides;
     }
 
     public String getLanguage() {
@@ -52,101 +161,620 @@ public final class DeathAnnouncerConfig {
         return hudDisplaySeconds;
     }
 
+    public long getHudCoalesceMillis() {
+        return hudCoalesceMillis;
+    }
+
+    public int getHudSummaryThreshold() {
+        return hudSummaryThreshold;
+    }
+
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    public DeathAnnouncementPipeline.OverflowPolicy getPipelineOverflowPolicy() {
+        return pipelineOverflowPolicy;
+    }
+
+    public long getNotificationRateLimit() {
+        return notificationRateLimit;
+    }
+
+    public long getHudRateLimit() {
+        return hudRateLimit;
+    }
+
+    public long getChatRateLimit() {
+        return chatRateLimit;
+    }
+
+    public long getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public long getRateLimitSummarySeconds() {
+        return rateLimitSummarySeconds;
+    }
+
+    public DeathRateLimiter.Settings getRateLimitSettings() {
+        return new DeathRateLimiter.Settings(notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds);
+    }
+
+    public DeliveryScope getNotificationScope() {
+        return notificationScope;
+    }
+
+    public DeliveryScope getHudScope() {
+        return hudScope;
+    }
+
+    public DeliveryScope getChatScope() {
+        return chatScope;
+    }
+
+    public long getScopeRadius() {
+        return scopeRadius;
+    }
+
+    public DeliveryScope.Settings getDeliverySettings() {
+        return new DeliveryScope.Settings(notificationScope, hudScope, chatScope, scopeRadius);
+    }
+
+    public boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    public long getJournalSegmentMegabytes() {
+        return journalSegmentMegabytes;
+    }
+
+    public int getJournalRetainedSegments() {
+        return journalRetainedSegments;
+    }
+
+    public DeathJournal.Settings getJournalSettings() {
+        return new DeathJournal.Settings(journalEnabled, journalSegmentMegabytes * 1024L * 1024L,
+            journalRetainedSegments);
+    }
+
+    public boolean isPerPlayerLanguage() {
+        return perPlayerLanguage;
+    }
+
+    public int getLocaleCacheSize() {
+        return localeCacheSize;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public long getMetricsSnapshotSeconds() {
+        return metricsSnapshotSeconds;
+    }
+
+    public AnnouncementMetrics.Settings getMetricsSettings() {
+        return new AnnouncementMetrics.Settings(metricsEnabled, metricsSnapshotSeconds);
+    }
+
+    public DeathLog.Verbosity getDeathLogVerbosity() {
+        return deathLogVerbosity;
+    }
+
+    public List<RuntimeSettings.WorldOverride> getWorldOverrides() {
+        return worldOverrides;
+    }
+
     public DeathAnnouncerConfig withLanguage(String newLanguage) {
         return new DeathAnnouncerConfig(newLanguage, notificationsEnabled, chatNotificationsEnabled,
-            hudNotificationsEnabled, hudDisplaySeconds);
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
     }
 
     public DeathAnnouncerConfig withNotifications(boolean enabled) {
         return new DeathAnnouncerConfig(language, enabled, chatNotificationsEnabled, hudNotificationsEnabled,
-            hudDisplaySeconds);
+            hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity, pipelineOverflowPolicy,
+            notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
     }
 
     public DeathAnnouncerConfig withChatNotifications(boolean enabled) {
         return new DeathAnnouncerConfig(language, notificationsEnabled, enabled, hudNotificationsEnabled,
-            hudDisplaySeconds);
+            hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity, pipelineOverflowPolicy,
+            notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
     }
 
     public DeathAnnouncerConfig withHudNotifications(boolean enabled) {
         return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled, enabled,
-            hudDisplaySeconds);
+            hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity, pipelineOverflowPolicy,
+            notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
     }
 
     public DeathAnnouncerConfig withHudDisplaySeconds(long seconds) {
-        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled, hudNotificationsEnabled,
-            seconds);
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, seconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withHudCoalesceMillis(long millis) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, millis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withHudSummaryThreshold(int threshold) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, threshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withPipelineQueueCapacity(int capacity) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, capacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withPipelineOverflowPolicy(DeathAnnouncementPipeline.OverflowPolicy policy) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            policy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withNotificationRateLimit(long perSecond) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, perSecond, hudRateLimit, chatRateLimit, rateLimitBurst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withHudRateLimit(long perSecond) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, perSecond, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withChatRateLimit(long perSecond) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, perSecond, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withRateLimitBurst(long burst) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, burst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withRateLimitSummarySeconds(long seconds) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst, seconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withNotificationScope(DeliveryScope scope) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, scope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
     }
 
+    public DeathAnnouncerConfig withHudScope(DeliveryScope scope) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, scope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withChatScope(DeliveryScope scope) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, scope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withScopeRadius(long radius) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, radius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withJournalEnabled(boolean enabled) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, enabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withJournalSegmentMegabytes(long megabytes) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, megabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withJournalRetainedSegments(int segments) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, segments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withPerPlayerLanguage(boolean enabled) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, enabled, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withLocaleCacheSize(int size) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, size, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withMetricsEnabled(boolean enabled) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, enabled,
+            metricsSnapshotSeconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withMetricsSnapshotSeconds(long seconds) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            seconds, deathLogVerbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withDeathLogVerbosity(DeathLog.Verbosity verbosity) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, verbosity, worldOverrides);
+    }
+
+    public DeathAnnouncerConfig withWorldOverrides(List<RuntimeSettings.WorldOverride> overrides) {
+        return new DeathAnnouncerConfig(language, notificationsEnabled, chatNotificationsEnabled,
+            hudNotificationsEnabled, hudDisplaySeconds, hudCoalesceMillis, hudSummaryThreshold, pipelineQueueCapacity,
+            pipelineOverflowPolicy, notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst,
+            rateLimitSummarySeconds, notificationScope, hudScope, chatScope, scopeRadius, journalEnabled,
+            journalSegmentMegabytes, journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled,
+            metricsSnapshotSeconds, deathLogVerbosity, List.copyOf(overrides));
+    }
+
+    /**
+     * Writes {@code config.yml} crash-safely: the YAML goes to a temporary file that is synced to disk and then
+     * moved over the old file, so a crash leaves either the old or the new file, never a truncated one.
+     */
     public void save(Path pluginDataDirectory) throws IOException {
         Path configFile = pluginDataDirectory.resolve("config.yml");
         Files.createDirectories(configFile.getParent());
+        ByteBuffer yaml = ByteBuffer.wrap(new Yaml().dump(toValues()).getBytes(StandardCharsets.UTF_8));
+        Path temp = configFile.resolveSibling("config.yml.tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (yaml.hasRemaining()) {
+                channel.write(yaml);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, configFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, configFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Makes the rename itself durable where the platform allows syncing a directory.
+        try (FileChannel directory = FileChannel.open(configFile.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException ignored) {
+            // Not supported on every platform; the file contents are already synced.
+        }
+    }
+
+    /**
+     * Returns the {@code config.yml} keys whose values differ between this configuration and {@code other}.
+     */
+    public Set<String> changedKeys(DeathAnnouncerConfig other) {
+        Map<String, Object> values = toValues();
+        Map<String, Object> otherValues = other.toValues();
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!Objects.equals(entry.getValue(), otherValues.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : otherValues.keySet()) {
+            if (!values.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    private Map<String, Object> toValues() {
         Map<String, Object> values = new LinkedHashMap<>();
         values.put("language", language);
         values.put("notifications", notificationsEnabled);
         values.put("chat-notifications", chatNotificationsEnabled);
         values.put("hud-notifications", hudNotificationsEnabled);
         values.put("hud-display-seconds", hudDisplaySeconds);
-        Yaml yaml = new Yaml();
-        try (var writer = Files.newBufferedWriter(configFile)) {
-            yaml.dump(values, writer);
+        values.put("hud-coalesce-millis", hudCoalesceMillis);
+        values.put("hud-summary-threshold", hudSummaryThreshold);
+        values.put("pipeline-queue-capacity", pipelineQueueCapacity);
+        values.put("pipeline-overflow-policy", pipelineOverflowPolicy.configName());
+        values.put("notification-rate-limit", notificationRateLimit);
+        values.put("hud-rate-limit", hudRateLimit);
+        values.put("chat-rate-limit", chatRateLimit);
+        values.put("rate-limit-burst", rateLimitBurst);
+        values.put("rate-limit-summary-seconds", rateLimitSummarySeconds);
+        values.put("notification-scope", notificationScope.configName());
+        values.put("hud-scope", hudScope.configName());
+        values.put("chat-scope", chatScope.configName());
+        values.put("scope-radius", scopeRadius);
+        values.put("journal-enabled", journalEnabled);
+        values.put("journal-segment-megabytes", journalSegmentMegabytes);
+        values.put("journal-retained-segments", journalRetainedSegments);
+        values.put("per-player-language", perPlayerLanguage);
+        values.put("locale-cache-size", localeCacheSize);
+        values.put("metrics-enabled", metricsEnabled);
+        values.put("metrics-snapshot-seconds", metricsSnapshotSeconds);
+        values.put("death-log", deathLogVerbosity.configName());
+        if (!worldOverrides.isEmpty()) {
+            Map<String, Object> worlds = new LinkedHashMap<>();
+            for (RuntimeSettings.WorldOverride override : worldOverrides) {
+                Map<String, Object> world = new LinkedHashMap<>();
+                putIfSet(world, "notifications", override.notifications());
+                putIfSet(world, "hud-notifications", override.hudNotifications());
+                putIfSet(world, "chat-notifications", override.chatNotifications());
+                putIfSet(world, "hud-display-seconds", override.hudDisplaySeconds());
+                worlds.put(override.world(), world);
+            }
+            values.put("world-overrides", worlds);
         }
+        return values;
     }
 
+    /**
+     * Reads {@code config.yml}, falling back to the defaults when it is missing, unreadable or malformed.
+     */
     public static DeathAnnouncerConfig load(Path pluginDataDirectory) {
+        try {
+            return read(pluginDataDirectory);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Using default death announcer settings", ex);
+            return defaults();
+        }
+    }
+
+    /**
+     * Reads {@code config.yml}, or returns the defaults when it does not exist. Unlike {@link #load}, a file that
+     * cannot be read or parsed is reported rather than replaced with defaults, so a reload can keep the running
+     * configuration.
+     */
+    public static DeathAnnouncerConfig read(Path pluginDataDirectory) throws IOException {
         Path configFile = pluginDataDirectory.resolve("config.yml");
         if (!Files.exists(configFile)) {
-            return new DeathAnnouncerConfig(DEFAULT_LANGUAGE, DEFAULT_NOTIFICATIONS, DEFAULT_CHAT_NOTIFICATIONS,
-                DEFAULT_HUD_NOTIFICATIONS, DEFAULT_HUD_DISPLAY_SECONDS);
+            return defaults();
         }
 
+        Object parsed;
         try (var reader = Files.newBufferedReader(configFile)) {
             Yaml yaml = new Yaml();
-            Object parsed = yaml.load(reader);
-            if (parsed instanceof Map<?, ?> map) {
-                String language = DEFAULT_LANGUAGE;
-                Object languageValue = map.get("language");
-                if (languageValue instanceof String value && !value.isBlank()) {
-                    language = value.trim();
-                }
-                boolean notifications = DEFAULT_NOTIFICATIONS;
-                Object notificationsValue = map.get("notifications");
-                if (notificationsValue instanceof Boolean flag) {
-                    notifications = flag;
-                } else if (notificationsValue instanceof String text && !text.isBlank()) {
-                    notifications = Boolean.parseBoolean(text.trim());
-                }
-                boolean chatNotifications = DEFAULT_CHAT_NOTIFICATIONS;
-                Object chatNotificationsValue = map.get("chat-notifications");
-                if (chatNotificationsValue instanceof Boolean flag) {
-                    chatNotifications = flag;
-                } else if (chatNotificationsValue instanceof String text && !text.isBlank()) {
-                    chatNotifications = Boolean.parseBoolean(text.trim());
-                }
-                boolean hudNotifications = DEFAULT_HUD_NOTIFICATIONS;
-                Object hudNotificationsValue = map.get("hud-notifications");
-                if (hudNotificationsValue instanceof Boolean flag) {
-                    hudNotifications = flag;
-                } else if (hudNotificationsValue instanceof String text && !text.isBlank()) {
-                    hudNotifications = Boolean.parseBoolean(text.trim());
-                }
-                long hudSeconds = DEFAULT_HUD_DISPLAY_SECONDS;
-                Object hudSecondsValue = map.get("hud-display-seconds");
-                if (hudSecondsValue instanceof Number number) {
-                    hudSeconds = Math.max(1L, number.longValue());
-                } else if (hudSecondsValue instanceof String text && !text.isBlank()) {
-                    try {
-                        hudSeconds = Math.max(1L, Long.parseLong(text.trim()));
-                    } catch (NumberFormatException ignored) {
-                        // Use default.
-                    }
-                }
-                return new DeathAnnouncerConfig(language, notifications, chatNotifications, hudNotifications, hudSeconds);
+            parsed = yaml.load(reader);
+        } catch (YAMLException ex) {
+            throw new IOException(configFile + " is not valid YAML", ex);
+        }
+        if (!(parsed instanceof Map<?, ?> map)) {
+            throw new IOException(configFile + " does not contain any settings");
+        }
+        String language = DEFAULT_LANGUAGE;
+        Object languageValue = map.get("language");
+        if (languageValue instanceof String value && !value.isBlank()) {
+            language = value.trim();
+        }
+        boolean notifications = readBoolean(map, "notifications", DEFAULT_NOTIFICATIONS);
+        boolean chatNotifications = readBoolean(map, "chat-notifications", DEFAULT_CHAT_NOTIFICATIONS);
+        boolean hudNotifications = readBoolean(map, "hud-notifications", DEFAULT_HUD_NOTIFICATIONS);
+        long hudSeconds = Math.max(1L, readLong(map, "hud-display-seconds", DEFAULT_HUD_DISPLAY_SECONDS));
+        long coalesceMillis = Math.max(0L, Math.min(DeathHudCoalescer.MAX_WINDOW_MILLIS,
+            readLong(map, "hud-coalesce-millis", DEFAULT_HUD_COALESCE_MILLIS)));
+        int summaryThreshold = (int) Math.max(2L, Math.min(Integer.MAX_VALUE,
+            readLong(map, "hud-summary-threshold", DEFAULT_HUD_SUMMARY_THRESHOLD)));
+        int pipelineQueueCapacity = (int) Math.max(16L, Math.min(1L << 20,
+            readLong(map, "pipeline-queue-capacity", DEFAULT_PIPELINE_QUEUE_CAPACITY)));
+        DeathAnnouncementPipeline.OverflowPolicy pipelineOverflowPolicy = DEFAULT_PIPELINE_OVERFLOW_POLICY;
+        Object policyValue = map.get("pipeline-overflow-policy");
+        if (policyValue instanceof String text) {
+            DeathAnnouncementPipeline.OverflowPolicy parsedPolicy = DeathAnnouncementPipeline.OverflowPolicy.parse(text);
+            if (parsedPolicy != null) {
+                pipelineOverflowPolicy = parsedPolicy;
             }
-        } catch (IOException ignored) {
-            // Fall back to defaults.
         }
+        long notificationRateLimit = Math.max(0L,
+            readLong(map, "notification-rate-limit", DEFAULT_NOTIFICATION_RATE_LIMIT));
+        long hudRateLimit = Math.max(0L, readLong(map, "hud-rate-limit", DEFAULT_HUD_RATE_LIMIT));
+        long chatRateLimit = Math.max(0L, readLong(map, "chat-rate-limit", DEFAULT_CHAT_RATE_LIMIT));
+        long rateLimitBurst = Math.max(1L, readLong(map, "rate-limit-burst", DEFAULT_RATE_LIMIT_BURST));
+        long rateLimitSummarySeconds = Math.max(1L,
+            readLong(map, "rate-limit-summary-seconds", DEFAULT_RATE_LIMIT_SUMMARY_SECONDS));
+        DeliveryScope notificationScope = readScope(map, "notification-scope", DEFAULT_NOTIFICATION_SCOPE);
+        DeliveryScope hudScope = readScope(map, "hud-scope", DEFAULT_HUD_SCOPE);
+        DeliveryScope chatScope = readScope(map, "chat-scope", DEFAULT_CHAT_SCOPE);
+        long scopeRadius = Math.max(1L, Math.min(DeliveryScope.MAX_RADIUS,
+            readLong(map, "scope-radius", DEFAULT_SCOPE_RADIUS)));
+        boolean journalEnabled = readBoolean(map, "journal-enabled", DEFAULT_JOURNAL_ENABLED);
+        long journalSegmentMegabytes = Math.max(1L, Math.min(1024L,
+            readLong(map, "journal-segment-megabytes", DEFAULT_JOURNAL_SEGMENT_MEGABYTES)));
+        int journalRetainedSegments = (int) Math.max(1L, Math.min(10_000L,
+            readLong(map, "journal-retained-segments", DEFAULT_JOURNAL_RETAINED_SEGMENTS)));
+        boolean perPlayerLanguage = readBoolean(map, "per-player-language", DEFAULT_PER_PLAYER_LANGUAGE);
+        int localeCacheSize = (int) Math.max(1L, Math.min(256L,
+            readLong(map, "locale-cache-size", DEFAULT_LOCALE_CACHE_SIZE)));
+        boolean metricsEnabled = readBoolean(map, "metrics-enabled", DEFAULT_METRICS_ENABLED);
+        long metricsSnapshotSeconds = Math.max(0L,
+            readLong(map, "metrics-snapshot-seconds", DEFAULT_METRICS_SNAPSHOT_SECONDS));
+        DeathLog.Verbosity deathLogVerbosity = DEFAULT_DEATH_LOG_VERBOSITY;
+        Object deathLogValue = map.get("death-log");
+        if (deathLogValue instanceof String text) {
+            DeathLog.Verbosity parsedVerbosity = DeathLog.Verbosity.parse(text);
+            if (parsedVerbosity != null) {
+                deathLogVerbosity = parsedVerbosity;
+            }
+        } else if (Boolean.FALSE.equals(deathLogValue)) {
+            deathLogVerbosity = DeathLog.Verbosity.OFF;
+        }
+        List<RuntimeSettings.WorldOverride> worldOverrides = readWorldOverrides(map.get("world-overrides"));
+        return new DeathAnnouncerConfig(language, notifications, chatNotifications, hudNotifications,
+            hudSeconds, coalesceMillis, summaryThreshold, pipelineQueueCapacity, pipelineOverflowPolicy,
+            notificationRateLimit, hudRateLimit, chatRateLimit, rateLimitBurst, rateLimitSummarySeconds,
+            notificationScope, hudScope, chatScope, scopeRadius, journalEnabled, journalSegmentMegabytes,
+            journalRetainedSegments, perPlayerLanguage, localeCacheSize, metricsEnabled, metricsSnapshotSeconds,
+            deathLogVerbosity, worldOverrides);
+    }
 
+    private static DeathAnnouncerConfig defaults() {
         return new DeathAnnouncerConfig(DEFAULT_LANGUAGE, DEFAULT_NOTIFICATIONS, DEFAULT_CHAT_NOTIFICATIONS,
-            DEFAULT_HUD_NOTIFICATIONS, DEFAULT_HUD_DISPLAY_SECONDS);
+            DEFAULT_HUD_NOTIFICATIONS, DEFAULT_HUD_DISPLAY_SECONDS, DEFAULT_HUD_COALESCE_MILLIS,
+            DEFAULT_HUD_SUMMARY_THRESHOLD, DEFAULT_PIPELINE_QUEUE_CAPACITY, DEFAULT_PIPELINE_OVERFLOW_POLICY,
+            DEFAULT_NOTIFICATION_RATE_LIMIT, DEFAULT_HUD_RATE_LIMIT, DEFAULT_CHAT_RATE_LIMIT, DEFAULT_RATE_LIMIT_BURST,
+            DEFAULT_RATE_LIMIT_SUMMARY_SECONDS, DEFAULT_NOTIFICATION_SCOPE, DEFAULT_HUD_SCOPE, DEFAULT_CHAT_SCOPE,
+            DEFAULT_SCOPE_RADIUS, DEFAULT_JOURNAL_ENABLED, DEFAULT_JOURNAL_SEGMENT_MEGABYTES,
+            DEFAULT_JOURNAL_RETAINED_SEGMENTS, DEFAULT_PER_PLAYER_LANGUAGE, DEFAULT_LOCALE_CACHE_SIZE,
+            DEFAULT_METRICS_ENABLED, DEFAULT_METRICS_SNAPSHOT_SECONDS, DEFAULT_DEATH_LOG_VERBOSITY,
+            DEFAULT_WORLD_OVERRIDES);
+    }
+
+    private static List<RuntimeSettings.WorldOverride> readWorldOverrides(Object value) {
+        if (!(value instanceof Map<?, ?> worlds)) {
+            return DEFAULT_WORLD_OVERRIDES;
+        }
+        List<RuntimeSettings.WorldOverride> overrides = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : worlds.entrySet()) {
+            if (entry.getKey() == null || !(entry.getValue() instanceof Map<?, ?> world)) {
+                continue;
+            }
+            Long seconds = world.containsKey("hud-display-seconds")
+                ? Math.max(1L, readLong(world, "hud-display-seconds", DEFAULT_HUD_DISPLAY_SECONDS))
+                : null;
+            overrides.add(new RuntimeSettings.WorldOverride(entry.getKey().toString(),
+                readOptionalBoolean(world, "notifications"), readOptionalBoolean(world, "hud-notifications"),
+                readOptionalBoolean(world, "chat-notifications"), seconds));
+        }
+        return List.copyOf(overrides);
+    }
+
+    private static Boolean readOptionalBoolean(Map<?, ?> map, String key) {
+        return map.containsKey(key) ? readBoolean(map, key, false) : null;
+    }
+
+    private static void putIfSet(Map<String, Object> values, String key, Object value) {
+        if (value != null) {
+            values.put(key, value);
+        }
+    }
+
+    private static boolean readBoolean(Map<?, ?> map, String key, boolean defaultValue) {
+        Object value = map.get(key);
+        if (value instanceof Boolean flag) {
+            return flag;
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return Boolean.parseBoolean(text.trim());
+        }
+        return defaultValue;
+    }
+
+    private static DeliveryScope readScope(Map<?, ?> map, String key, DeliveryScope defaultValue) {
+        Object value = map.get(key);
+        if (value instanceof String text) {
+            DeliveryScope scope = DeliveryScope.parse(text);
+            if (scope != null) {
+                return scope;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static long readLong(Map<?, ?> map, String key, long defaultValue) {
+        Object value = map.get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Long.parseLong(text.trim());
+            } catch (NumberFormatException ignored) {
+                // Use default.
+            }
+        }
+        return defaultValue;
     }
 }
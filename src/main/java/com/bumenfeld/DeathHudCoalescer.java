@@ -0,0 +1,134 @@
+package com.bumenfeld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Gathers death HUD requests over a short window so every spectator receives one HUD update per window
+ * instead of one per death. Each audience (see {@link DeliveryTarget#coalescingKey()}) has its own window.
+ *
+ * @param <T> the announcement payload; only the most recent one of a window is kept
+ */
+final class DeathHudCoalescer<T> {
+    static final long MAX_WINDOW_MILLIS = 500L;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-hud-coalesce");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Consumer<CoalescedDeaths<T>> flushTarget;
+    private final Object lock = new Object();
+    private final Map<Object, Window<T>> windows = new HashMap<>();
+    private volatile long windowMillis;
+
+    DeathHudCoalescer(long windowMillis, Consumer<CoalescedDeaths<T>> flushTarget) {
+        this.flushTarget = Objects.requireNonNull(flushTarget, "flushTarget");
+        setWindowMillis(windowMillis);
+    }
+
+    /**
+     * @param capturedNanos {@link AnnouncementMetrics#start()} of the death, or {@link AnnouncementMetrics#DISABLED}
+     */
+    void submit(T announcement, String iconTexturePath, DeliveryTarget target, long capturedNanos) {
+        long window = windowMillis;
+        if (window <= 0L) {
+            flushTarget.accept(new CoalescedDeaths<>(1, announcement, iconTexturePath, List.of(target),
+                capturedNanos));
+            return;
+        }
+
+        Object key = target.coalescingKey();
+        synchronized (lock) {
+            Window<T> pending = windows.get(key);
+            if (pending != null) {
+                pending.add(announcement, iconTexturePath, target, capturedNanos);
+                return;
+            }
+            pending = new Window<>();
+            pending.add(announcement, iconTexturePath, target, capturedNanos);
+            windows.put(key, pending);
+        }
+        scheduler.schedule(() -> flush(key), window, TimeUnit.MILLISECONDS);
+    }
+
+    void setWindowMillis(long millis) {
+        this.windowMillis = Math.max(0L, Math.min(MAX_WINDOW_MILLIS, millis));
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+        synchronized (lock) {
+            windows.clear();
+        }
+    }
+
+    private void flush(Object key) {
+        Window<T> window;
+        synchronized (lock) {
+            window = windows.remove(key);
+        }
+        if (window != null) {
+            flushTarget.accept(window.toDeaths());
+        }
+    }
+
+    /**
+     * Deaths collected during one window. {@code latest} belongs to the most recent death, {@code iconTexturePath}
+     * to the most frequent cause. {@code targets} holds every distinct target of the window, most recent last; they
+     * share scope and world and only differ in their centre when the window gathers radius deaths.
+     * {@code firstCapturedNanos} is the capture stamp of the earliest timed death, or
+     * {@link AnnouncementMetrics#DISABLED}.
+     */
+    record CoalescedDeaths<T>(int count,
+                              T latest,
+                              String iconTexturePath,
+                              List<DeliveryTarget> targets,
+                              long firstCapturedNanos) {
+    }
+
+    private static final class Window<T> {
+        private final Map<String, Integer> iconCounts = new HashMap<>();
+        private int count;
+        private T lastAnnouncement;
+        private String lastIcon;
+        private final List<DeliveryTarget> targets = new ArrayList<>(1);
+        private long firstCapturedNanos = AnnouncementMetrics.DISABLED;
+
+        private void add(T announcement, String iconTexturePath, DeliveryTarget target, long capturedNanos) {
+            count++;
+            if (firstCapturedNanos == AnnouncementMetrics.DISABLED) {
+                firstCapturedNanos = capturedNanos;
+            }
+            lastAnnouncement = announcement;
+            lastIcon = iconTexturePath;
+            iconCounts.merge(iconTexturePath, 1, Integer::sum);
+            targets.remove(target);
+            targets.add(target);
+        }
+
+        private CoalescedDeaths<T> toDeaths() {
+            return new CoalescedDeaths<>(count, lastAnnouncement, dominantIcon(), List.copyOf(targets),
+                firstCapturedNanos);
+        }
+
+        private String dominantIcon() {
+            String best = lastIcon;
+            int bestCount = iconCounts.getOrDefault(lastIcon, 0);
+            for (Map.Entry<String, Integer> entry : iconCounts.entrySet()) {
+                if (entry.getValue() > bestCount) {
+                    best = entry.getKey();
+                    bestCount = entry.getValue();
+                }
+            }
+            return best;
+        }
+    }
+}
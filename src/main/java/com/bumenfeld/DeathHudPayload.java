@@ -0,0 +1,62 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.server.core.ui.PatchStyle;
+import com.hypixel.hytale.server.core.ui.Value;
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+
+/**
+ * Content of a death HUD rendered once per death and language and shared by every spectator's
+ * {@link DeathNotificationHud}; the icon style is built here once instead of once per spectator. Instances are never
+ * modified after {@link #of}.
+ */
+record DeathHudPayload(String uiPath, String title, String subtitle, String iconTexturePath, PatchStyle iconStyle) {
+    static final String DEFAULT_UI_PATH = "death_notification.ui";
+
+    static DeathHudPayload of(String uiPath, String title, String subtitle, String iconTexturePath) {
+        String safeIcon = iconTexturePath == null ? "" : iconTexturePath;
+        return new DeathHudPayload(uiPath == null ? DEFAULT_UI_PATH : uiPath, title == null ? "" : title,
+            subtitle == null ? "" : subtitle, safeIcon,
+            safeIcon.isBlank() ? null : new PatchStyle().setTexturePath(Value.of(safeIcon)));
+    }
+
+    /**
+     * Writes the whole UI document followed by every property.
+     */
+    void build(UICommandBuilder builder) {
+        builder.append(uiPath);
+        if (iconStyle != null) {
+            builder.setObject("#DeathIcon.Background", iconStyle);
+        }
+        builder.set("#DeathTitle.Text", title);
+        builder.set("#DeathSubtitle.Text", subtitle);
+    }
+
+    /**
+     * Returns whether a HUD showing {@code previous} can be turned into this payload by property updates alone; a
+     * removed icon can only be cleared by mounting the document again.
+     */
+    boolean canPatch(DeathHudPayload previous) {
+        return uiPath.equals(previous.uiPath) && (iconStyle != null || previous.iconStyle == null);
+    }
+
+    /**
+     * Returns the property updates that turn a HUD showing {@code previous} into this payload, or {@code null} when
+     * nothing differs.
+     */
+    UICommandBuilder deltaFrom(DeathHudPayload previous) {
+        UICommandBuilder builder = null;
+        if (!iconTexturePath.equals(previous.iconTexturePath)) {
+            builder = new UICommandBuilder();
+            builder.setObject("#DeathIcon.Background", iconStyle);
+        }
+        if (!title.equals(previous.title)) {
+            builder = builder == null ? new UICommandBuilder() : builder;
+            builder.set("#DeathTitle.Text", title);
+        }
+        if (!subtitle.equals(previous.subtitle)) {
+            builder = builder == null ? new UICommandBuilder() : builder;
+            builder.set("#DeathSubtitle.Text", subtitle);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,486 @@
+package com.bumenfeld;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only binary log of every player death in {@code journal/} under the plugin data directory.
+ *
+ * <p>The world thread only offers the {@link DeathRecord} to a lock-free ring buffer. A writer thread encodes
+ * records into fixed 44-byte slots (timestamp, player UUID, interned cause and world ids, position), appends whole
+ * batches to the current segment and fsyncs at most once per {@link #SYNC_INTERVAL_NANOS}, so one sync commits every
+ * death written since the last one. Segments roll by size; once more than the retained count exist, the oldest is
+ * folded into {@code summary.bin} as per-day counts by cause and world and then deleted. The summary also records
+ * the sequence of the last segment folded into it, so a segment left behind by a crash between replacing the summary
+ * and deleting the segment is deleted on the next start instead of being counted twice.
+ *
+ * <p>Cause and world names are interned into {@code symbols.txt}, one name per line, where the line number is the id
+ * used in segments and the summary.
+ */
+final class DeathJournal {
+    private static final Logger LOGGER = Logger.getLogger(DeathJournal.class.getName());
+    private static final int SEGMENT_MAGIC = 0x444A4E4C;
+    private static final int SUMMARY_MAGIC = 0x444A534D;
+    private static final short VERSION = 1;
+    private static final short SUMMARY_VERSION = 2;
+    static final int RECORD_SIZE = 44;
+    private static final int HEADER_SIZE = 8;
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int BATCH_RECORDS = 256;
+    private static final long SYNC_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final Path directory;
+    private final Settings settings;
+    private final MpscRingBuffer<DeathRecord> queue;
+    private final Thread writer;
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private volatile boolean writerParked;
+    private volatile boolean running = true;
+
+    // Writer thread state.
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private int symbolCount;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_SIZE);
+    private FileChannel symbols;
+    private FileChannel segment;
+    private long segmentSequence;
+    private boolean unsynced;
+    private long lastSyncNanos = System.nanoTime();
+
+    private DeathJournal(Path directory, Settings settings) {
+        this.directory = directory;
+        this.settings = settings;
+        this.queue = settings.enabled() ? new MpscRingBuffer<>(QUEUE_CAPACITY) : null;
+        this.writer = settings.enabled() ? new Thread(this::writeLoop, "death-journal-writer") : null;
+    }
+
+    static DeathJournal open(Path dataDirectory, Settings settings) {
+        Objects.requireNonNull(settings, "settings");
+        DeathJournal journal = new DeathJournal(dataDirectory.resolve("journal"), settings);
+        if (journal.writer != null) {
+            journal.writer.setDaemon(true);
+            journal.writer.start();
+        }
+        return journal;
+    }
+
+    /**
+     * Queues {@code record} for the writer; never blocks and counts the record as dropped when the buffer is full.
+     */
+    void append(DeathRecord record) {
+        if (queue == null) {
+            return;
+        }
+        appended.increment();
+        if (!queue.offer(record)) {
+            dropped.increment();
+            return;
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    Stats stats() {
+        return new Stats(settings.enabled(), appended.sum(), written.sum(), dropped.sum(), syncs.sum(),
+            queue == null ? 0 : queue.size());
+    }
+
+    /**
+     * Stops the writer after it has written and synced everything already queued.
+     */
+    void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            openFiles();
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Unable to open the death journal in " + directory + "; journaling is off.", ex);
+            return;
+        }
+
+        while (true) {
+            boolean stopping = !running;
+            int count = drainBatch();
+            try {
+                if (count > 0) {
+                    writeBatch(count);
+                }
+                long now = System.nanoTime();
+                if (unsynced && (stopping || now - lastSyncNanos >= SYNC_INTERVAL_NANOS)) {
+                    sync(now);
+                }
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Failed to write the death journal", ex);
+            }
+            if (stopping && queue.isEmpty()) {
+                break;
+            }
+            if (count == 0) {
+                writerParked = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, SYNC_INTERVAL_NANOS);
+                }
+                writerParked = false;
+            }
+        }
+        closeQuietly(segment);
+        closeQuietly(symbols);
+    }
+
+    private int drainBatch() {
+        batch.clear();
+        int count = 0;
+        while (count < BATCH_RECORDS) {
+            DeathRecord record = queue.poll();
+            if (record == null) {
+                break;
+            }
+            try {
+                encode(record);
+                count++;
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Failed to intern death journal symbols", ex);
+            }
+        }
+        batch.flip();
+        return count;
+    }
+
+    private void encode(DeathRecord record) throws IOException {
+        int causeId = intern(record.causeName());
+        int worldId = intern(record.worldName());
+        UUID uuid = record.playerUuid();
+        batch.putLong(record.timestampMillis());
+        batch.putLong(uuid == null ? 0L : uuid.getMostSignificantBits());
+        batch.putLong(uuid == null ? 0L : uuid.getLeastSignificantBits());
+        batch.putInt(causeId);
+        batch.putInt(worldId);
+        batch.putFloat((float) record.x());
+        batch.putFloat((float) record.y());
+        batch.putFloat((float) record.z());
+    }
+
+    private void writeBatch(int count) throws IOException {
+        if (segment.size() + batch.remaining() > settings.segmentBytes()) {
+            rollSegment();
+        }
+        while (batch.hasRemaining()) {
+            segment.write(batch);
+        }
+        written.add(count);
+        unsynced = true;
+    }
+
+    private void sync(long now) throws IOException {
+        symbols.force(false);
+        segment.force(false);
+        syncs.increment();
+        unsynced = false;
+        lastSyncNanos = now;
+    }
+
+    private int intern(String name) throws IOException {
+        String key = name == null ? "" : name.replace('\n', ' ').replace('\r', ' ');
+        Integer id = symbolIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        int next = symbolCount;
+        ByteBuffer line = ByteBuffer.wrap((key + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            symbols.write(line);
+        }
+        symbolIds.put(key, next);
+        symbolCount++;
+        unsynced = true;
+        return next;
+    }
+
+    private void openFiles() throws IOException {
+        Files.createDirectories(directory);
+        Path symbolFile = directory.resolve("symbols.txt");
+        boolean needsNewline = false;
+        if (Files.exists(symbolFile)) {
+            for (String line : Files.readAllLines(symbolFile, StandardCharsets.UTF_8)) {
+                symbolIds.putIfAbsent(line, symbolCount++);
+            }
+            byte[] content = Files.readAllBytes(symbolFile);
+            needsNewline = content.length > 0 && content[content.length - 1] != '\n';
+        }
+        symbols = FileChannel.open(symbolFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        if (needsNewline) {
+            symbols.write(ByteBuffer.wrap(new byte[] {'\n'}));
+        }
+
+        long compactedThrough = readCompactedThrough();
+        List<Path> segments = removeCompactedSegments(listSegments(), compactedThrough);
+        if (segments.isEmpty()) {
+            // Continue after the summary so a new segment is never mistaken for one it already covers.
+            segmentSequence = compactedThrough + 1L;
+            segment = createSegment(segmentSequence);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        segmentSequence = sequenceOf(last);
+        segment = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        long size = segment.size();
+        long complete = size < HEADER_SIZE ? HEADER_SIZE : HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        if (size < HEADER_SIZE) {
+            writeHeader(segment);
+        } else if (complete != size) {
+            LOGGER.warning(() -> "Truncating a partial death journal record at the end of " + last.getFileName());
+            segment.truncate(complete);
+        }
+        segment.position(complete);
+    }
+
+    private void rollSegment() throws IOException {
+        segment.force(false);
+        segment.close();
+        segmentSequence++;
+        segment = createSegment(segmentSequence);
+
+        List<Path> segments = listSegments();
+        int excess = segments.size() - settings.retainedSegments();
+        for (int i = 0; i < excess; i++) {
+            compact(segments.get(i));
+        }
+    }
+
+    private FileChannel createSegment(long sequence) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(segmentName(sequence)), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(channel);
+        return channel;
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).flip();
+        channel.position(0L);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private long readCompactedThrough() {
+        try {
+            return readSummary(directory.resolve("summary.bin"), new HashMap<>());
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to read the death journal summary", ex);
+            return -1L;
+        }
+    }
+
+    /**
+     * Deletes segments the summary already covers and returns the remaining ones.
+     */
+    private static List<Path> removeCompactedSegments(List<Path> segments, long compactedThrough) throws IOException {
+        List<Path> remaining = new ArrayList<>(segments.size());
+        for (Path segmentFile : segments) {
+            if (sequenceOf(segmentFile) <= compactedThrough) {
+                LOGGER.info(() -> "Deleting death journal " + segmentFile.getFileName()
+                    + "; it was already compacted into summary.bin");
+                Files.delete(segmentFile);
+            } else {
+                remaining.add(segmentFile);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Folds one segment into the per-day summary, replaces the summary atomically and deletes the segment. Segments
+     * are compacted oldest first, so the summary only has to remember the last sequence it covers.
+     */
+    private void compact(Path segmentFile) {
+        Path summaryFile = directory.resolve("summary.bin");
+        Map<SummaryKey, long[]> counts = new HashMap<>();
+        long sequence = sequenceOf(segmentFile);
+        try {
+            if (readSummary(summaryFile, counts) >= sequence) {
+                Files.delete(segmentFile);
+                return;
+            }
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile)))) {
+                if (input.readInt() != SEGMENT_MAGIC) {
+                    throw new IOException("Not a death journal segment: " + segmentFile.getFileName());
+                }
+                input.readShort();
+                int recordSize = input.readShort();
+                byte[] skip = new byte[Math.max(0, recordSize - RECORD_SIZE)];
+                while (true) {
+                    long timestamp;
+                    try {
+                        timestamp = input.readLong();
+                    } catch (EOFException end) {
+                        break;
+                    }
+                    input.readLong();
+                    input.readLong();
+                    int causeId = input.readInt();
+                    int worldId = input.readInt();
+                    input.readFloat();
+                    input.readFloat();
+                    input.readFloat();
+                    input.readFully(skip);
+                    int day = (int) Math.floorDiv(timestamp, MILLIS_PER_DAY);
+                    counts.computeIfAbsent(new SummaryKey(day, causeId, worldId), ignored -> new long[1])[0]++;
+                }
+            } catch (EOFException partial) {
+                // A torn final record is not counted.
+            }
+            writeSummary(summaryFile, counts, sequence);
+            Files.delete(segmentFile);
+            LOGGER.info(() -> "Compacted death journal " + segmentFile.getFileName() + " into summary.bin");
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to compact death journal " + segmentFile.getFileName(), ex);
+        }
+    }
+
+    /**
+     * Adds the summary's counts to {@code counts} and returns the sequence of the last segment folded into it, or
+     * {@code -1} when there is no summary yet.
+     */
+    private static long readSummary(Path summaryFile, Map<SummaryKey, long[]> counts) throws IOException {
+        if (!Files.exists(summaryFile)) {
+            return -1L;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(summaryFile)))) {
+            short version = input.readInt() == SUMMARY_MAGIC ? input.readShort() : -1;
+            if (version != SUMMARY_VERSION) {
+                throw new IOException("Unknown death journal summary format");
+            }
+            long compactedThrough = input.readLong();
+            int entries = input.readInt();
+            for (int i = 0; i < entries; i++) {
+                SummaryKey key = new SummaryKey(input.readInt(), input.readInt(), input.readInt());
+                counts.computeIfAbsent(key, ignored -> new long[1])[0] += input.readLong();
+            }
+            return compactedThrough;
+        }
+    }
+
+    private static void writeSummary(Path summaryFile, Map<SummaryKey, long[]> counts, long compactedThrough)
+        throws IOException {
+        Path temp = summaryFile.resolveSibling("summary.bin.tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+            output.writeInt(SUMMARY_MAGIC);
+            output.writeShort(SUMMARY_VERSION);
+            output.writeLong(compactedThrough);
+            output.writeInt(counts.size());
+            for (Map.Entry<SummaryKey, long[]> entry : counts.entrySet()) {
+                output.writeInt(entry.getKey().day());
+                output.writeInt(entry.getKey().causeId());
+                output.writeInt(entry.getKey().worldId());
+                output.writeLong(entry.getValue()[0]);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, summaryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, summaryFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX) && sequenceOf(path) >= 0L;
+                })
+                .toList());
+            segments.sort((left, right) -> Long.compare(sequenceOf(left), sequenceOf(right)));
+            return segments;
+        }
+    }
+
+    private static String segmentName(long sequence) {
+        return String.format("%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    private static long sequenceOf(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException ex) {
+            return -1L;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing left to do on shutdown.
+        }
+    }
+
+    /**
+     * Journal options read at startup; a segment holds at least one batch.
+     */
+    record Settings(boolean enabled, long segmentBytes, int retainedSegments) {
+        Settings {
+            segmentBytes = Math.max(HEADER_SIZE + (long) BATCH_RECORDS * RECORD_SIZE, segmentBytes);
+            retainedSegments = Math.max(1, retainedSegments);
+        }
+    }
+
+    record Stats(boolean enabled, long appended, long written, long dropped, long syncs, int depth) {
+    }
+
+    private record SummaryKey(int day, int causeId, int worldId) {
+    }
+}
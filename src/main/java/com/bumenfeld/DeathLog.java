@@ -0,0 +1,373 @@
+package com.bumenfeld;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Human-readable death log written to {@code deaths.log} in the plugin data directory, away from the server log.
+ *
+ * <p>Producers never format or block: they claim a slot in a preallocated ring of mutable entries, copy the raw
+ * fields into it and publish it, using the same sequence scheme as {@link MpscRingBuffer}. When the ring is full the
+ * entry is counted as dropped. A writer thread formats published entries and appends them in batches, flushing once
+ * per batch. The file rolls to {@code deaths.1.log} ... {@code deaths.N.log} once it passes {@link #MAX_FILE_BYTES}.
+ */
+final class DeathLog {
+    private static final Logger LOGGER = Logger.getLogger(DeathLog.class.getName());
+    private static final int CAPACITY = 4096;
+    private static final int BATCH_ENTRIES = 256;
+    private static final long MAX_FILE_BYTES = 8L * 1024L * 1024L;
+    private static final int RETAINED_FILES = 5;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS",
+        Locale.ROOT).withZone(ZoneId.systemDefault());
+
+    private final Path file;
+    private final int mask;
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final Thread writer;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Verbosity verbosity;
+    private volatile boolean writerParked;
+    private volatile boolean running = true;
+
+    // Writer thread state.
+    private final StringBuilder line = new StringBuilder(256);
+    private volatile long consumerIndex;
+    private BufferedWriter output;
+    private long fileBytes;
+
+    private DeathLog(Path file, Verbosity verbosity) {
+        this.file = file;
+        this.verbosity = Objects.requireNonNull(verbosity, "verbosity");
+        this.mask = CAPACITY - 1;
+        this.entries = new Entry[CAPACITY];
+        this.sequences = new AtomicLongArray(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        this.writer = new Thread(this::writeLoop, "death-log-writer");
+    }
+
+    static DeathLog open(Path dataDirectory, Verbosity verbosity) {
+        DeathLog log = new DeathLog(dataDirectory.resolve("deaths.log"), verbosity);
+        log.writer.setDaemon(true);
+        log.writer.start();
+        return log;
+    }
+
+    void setVerbosity(Verbosity verbosity) {
+        this.verbosity = Objects.requireNonNull(verbosity, "verbosity");
+    }
+
+    /**
+     * Logs one death and the channels it was announced on; the channels are only written at
+     * {@link Verbosity#DETAILED}.
+     */
+    void death(DeathRecord record, boolean notification, boolean hud, boolean chat) {
+        Verbosity verbosity = this.verbosity;
+        if (verbosity == Verbosity.OFF) {
+            return;
+        }
+        long position = claim();
+        if (position < 0L) {
+            return;
+        }
+        Entry entry = entries[(int) (position & mask)];
+        entry.kind = Kind.DEATH;
+        entry.verbosity = verbosity;
+        entry.timestampMillis = record.timestampMillis();
+        entry.player = record.playerName();
+        entry.cause = record.causeName();
+        entry.killer = record.killerName();
+        entry.world = record.worldName();
+        entry.x = record.x();
+        entry.y = record.y();
+        entry.z = record.z();
+        entry.notification = notification;
+        entry.hud = hud;
+        entry.chat = chat;
+        publish(position);
+    }
+
+    /**
+     * Logs a rate-limit summary at {@link Verbosity#DETAILED}.
+     */
+    void suppressed(String worldName, DeathRateLimiter.Channel channel, long count, String dominantCategory) {
+        if (verbosity != Verbosity.DETAILED) {
+            return;
+        }
+        long position = claim();
+        if (position < 0L) {
+            return;
+        }
+        Entry entry = entries[(int) (position & mask)];
+        entry.kind = Kind.SUPPRESSED;
+        entry.verbosity = Verbosity.DETAILED;
+        entry.timestampMillis = System.currentTimeMillis();
+        entry.world = worldName;
+        entry.channel = channel;
+        entry.count = count;
+        entry.cause = dominantCategory;
+        publish(position);
+    }
+
+    Stats stats() {
+        return new Stats(verbosity, written.sum(), dropped.sum(),
+            (int) Math.max(0L, producerIndex.get() - consumerIndex));
+    }
+
+    /**
+     * Stops the writer after everything already published has been written.
+     */
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long claim() {
+        long position = producerIndex.get();
+        while (true) {
+            long difference = sequences.get((int) (position & mask)) - position;
+            if (difference == 0L) {
+                if (producerIndex.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = producerIndex.get();
+            } else if (difference < 0L) {
+                dropped.increment();
+                return -1L;
+            } else {
+                position = producerIndex.get();
+            }
+        }
+    }
+
+    private void publish(long position) {
+        sequences.set((int) (position & mask), position + 1);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean hasPublished() {
+        return sequences.get((int) (consumerIndex & mask)) == consumerIndex + 1;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            boolean stopping = !running;
+            int count = 0;
+            try {
+                while (count < BATCH_ENTRIES && hasPublished()) {
+                    int index = (int) (consumerIndex & mask);
+                    format(entries[index]);
+                    entries[index].clear();
+                    sequences.set(index, consumerIndex + CAPACITY);
+                    consumerIndex++;
+                    count++;
+                    write();
+                }
+                if (count > 0) {
+                    if (output != null) {
+                        output.flush();
+                    }
+                    written.add(count);
+                }
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Failed to write " + file.getFileName(), ex);
+                // The batch was taken off the ring but may not have reached the file.
+                dropped.add(count);
+                closeOutput();
+            }
+            if (stopping && !hasPublished()) {
+                break;
+            }
+            if (count == 0) {
+                writerParked = true;
+                if (!hasPublished() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+            }
+        }
+        closeOutput();
+    }
+
+    private void format(Entry entry) {
+        line.setLength(0);
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(entry.timestampMillis), line);
+        line.append(' ');
+        if (entry.kind == Kind.SUPPRESSED) {
+            line.append(entry.count).append(" deaths in ").append(entry.world).append(" over the ")
+                .append(entry.channel.name().toLowerCase(Locale.ROOT)).append(" rate limit (mostly ")
+                .append(entry.cause).append(')');
+        } else {
+            line.append(entry.player).append(" died (").append(entry.cause).append(')');
+            if (entry.verbosity == Verbosity.DETAILED) {
+                if (entry.killer != null && !entry.killer.equals(entry.cause)) {
+                    line.append(" killed by ").append(entry.killer);
+                }
+                line.append(" in ").append(entry.world);
+                if (!Double.isNaN(entry.x)) {
+                    line.append(String.format(Locale.ROOT, " at %.1f %.1f %.1f", entry.x, entry.y, entry.z));
+                }
+                line.append(" [notification ").append(entry.notification ? "on" : "off")
+                    .append(", hud ").append(entry.hud ? "on" : "off")
+                    .append(", chat ").append(entry.chat ? "on" : "off").append(']');
+            }
+        }
+        line.append('\n');
+    }
+
+    private void write() throws IOException {
+        if (output == null) {
+            Files.createDirectories(file.getParent());
+            fileBytes = Files.exists(file) ? Files.size(file) : 0L;
+            output = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        }
+        output.append(line);
+        fileBytes += utf8Length(line);
+        if (fileBytes >= MAX_FILE_BYTES) {
+            rotate();
+        }
+    }
+
+    /**
+     * Number of bytes {@code text} takes in UTF-8, counted without encoding it.
+     */
+    private static int utf8Length(CharSequence text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private void rotate() throws IOException {
+        closeOutput();
+        String name = file.getFileName().toString();
+        String base = name.substring(0, name.lastIndexOf('.'));
+        Files.deleteIfExists(file.resolveSibling(base + "." + RETAINED_FILES + ".log"));
+        for (int i = RETAINED_FILES - 1; i >= 1; i--) {
+            Path source = file.resolveSibling(base + "." + i + ".log");
+            if (Files.exists(source)) {
+                Files.move(source, file.resolveSibling(base + "." + (i + 1) + ".log"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, file.resolveSibling(base + ".1.log"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void closeOutput() {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException ignored) {
+            // Nothing left to do on shutdown.
+        }
+        output = null;
+    }
+
+    enum Verbosity {
+        /** Write nothing. */
+        OFF,
+        /** One line per death with the player and cause. */
+        DEATHS,
+        /** Also killer, world, position, announced channels, and rate-limit summaries. */
+        DETAILED;
+
+        String configName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static Verbosity parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            String normalized = value.trim().toLowerCase(Locale.ROOT);
+            for (Verbosity verbosity : values()) {
+                if (verbosity.configName().equals(normalized)) {
+                    return verbosity;
+                }
+            }
+            return null;
+        }
+    }
+
+    private enum Kind {
+        DEATH,
+        SUPPRESSED
+    }
+
+    /**
+     * Preallocated ring slot; written by one producer before publishing and read by the writer afterwards.
+     */
+    private static final class Entry {
+        Kind kind;
+        Verbosity verbosity;
+        long timestampMillis;
+        String player;
+        String cause;
+        String killer;
+        String world;
+        double x;
+        double y;
+        double z;
+        boolean notification;
+        boolean hud;
+        boolean chat;
+        DeathRateLimiter.Channel channel;
+        long count;
+
+        void clear() {
+            player = null;
+            cause = null;
+            killer = null;
+            world = null;
+            channel = null;
+        }
+    }
+
+    record Stats(Verbosity verbosity, long written, long dropped, int depth) {
+    }
+}
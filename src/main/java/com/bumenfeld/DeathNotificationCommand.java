@@ -4,18 +4,21 @@ import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.AbstractCommand;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.CommandSender;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 
 public final class DeathNotificationCommand extends AbstractCommand {
     private static final String ADMIN_PERMISSION = "com.bumenfeld.deathnotification.admin";
@@ -24,7 +27,24 @@ public final class DeathNotificationCommand extends AbstractCommand {
         "notifications",
         "chat-notifications",
         "hud-display-seconds",
-        "hud-notifications"
+        "hud-notifications",
+        "hud-coalesce-millis",
+        "hud-summary-threshold",
+        "pipeline-overflow-policy",
+        "notification-rate-limit",
+        "hud-rate-limit",
+        "chat-rate-limit",
+        "rate-limit-burst",
+        "rate-limit-summary-seconds",
+        "notification-scope",
+        "hud-scope",
+        "chat-scope",
+        "scope-radius",
+        "per-player-language",
+        "locale-cache-size",
+        "metrics-enabled",
+        "metrics-snapshot-seconds",
+        "death-log"
     );
 
     private final DeathAnnouncer announcer;
@@ -33,7 +53,6 @@ public final class DeathNotificationCommand extends AbstractCommand {
 
     public DeathNotificationCommand(DeathAnnouncer announcer, DeathAnnouncementSystem announcementSystem) {
         super("deathnotification", "Manage death notifications");
-        requirePermission(ADMIN_PERMISSION);
         this.announcer = announcer;
         this.announcementSystem = announcementSystem;
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -44,11 +63,16 @@ public final class DeathNotificationCommand extends AbstractCommand {
         addSubCommand(new ConfigSubCommand());
         addSubCommand(new ReloadSubCommand());
         addSubCommand(new TestSubCommand());
+        addSubCommand(new CausesSubCommand());
+        addSubCommand(new PipelineSubCommand());
+        addSubCommand(new PreferencesSubCommand());
+        addSubCommand(new StatsSubCommand());
+        addSubCommand(new MetricsSubCommand());
     }
 
     @Override
     protected CompletableFuture<Void> execute(CommandContext context) {
-        context.sendMessage(Message.raw("Usage: /deathnotification <config|reload|test>"));
+        context.sendMessage(Message.raw("Usage: /deathnotification <config|reload|test|causes|pipeline|prefs|stats|metrics>"));
         return CompletableFuture.completedFuture(null);
     }
 
@@ -58,7 +82,12 @@ public final class DeathNotificationCommand extends AbstractCommand {
 
         private ConfigSubCommand() {
             super("config", "Adjust death notification configuration values");
-            optionArg = withRequiredArg("option", "Config option (language/notifications/chat-notifications/hud-display-seconds/hud-notifications)",
+            requirePermission(ADMIN_PERMISSION);
+            optionArg = withRequiredArg("option", "Config option (language/notifications/chat-notifications/hud-display-seconds/hud-notifications/"
+                    + "hud-coalesce-millis/hud-summary-threshold/pipeline-overflow-policy/notification-rate-limit/"
+                    + "hud-rate-limit/chat-rate-limit/rate-limit-burst/rate-limit-summary-seconds/notification-scope/"
+                    + "hud-scope/chat-scope/scope-radius/per-player-language/locale-cache-size/metrics-enabled/"
+                    + "metrics-snapshot-seconds/death-log)",
                 ArgTypes.STRING);
             valueArg = withRequiredArg("value", "New value for the option", ArgTypes.STRING);
         }
@@ -73,20 +102,20 @@ public final class DeathNotificationCommand extends AbstractCommand {
                 return CompletableFuture.completedFuture(null);
             }
 
-            DeathAnnouncerConfig current = announcer.getCurrentConfig();
-            if (current == null) {
+            if (announcer.getCurrentConfig() == null) {
                 context.sendMessage(Message.raw("Configuration is not yet loaded."));
                 return CompletableFuture.completedFuture(null);
             }
 
-            DeathAnnouncerConfig updated = switch (option) {
+            // Edits are replayed on whatever configuration is running when the batch is written.
+            UnaryOperator<DeathAnnouncerConfig> edit = switch (option) {
                 case "language" -> {
                     String trimmed = value.trim();
                     if (trimmed.isEmpty()) {
                         context.sendMessage(Message.raw("Language cannot be empty."));
                         yield null;
                     }
-                    yield current.withLanguage(trimmed);
+                    yield config -> config.withLanguage(trimmed);
                 }
                 case "notifications" -> {
                     Boolean flag = parseBoolean(value);
@@ -94,7 +123,7 @@ public final class DeathNotificationCommand extends AbstractCommand {
                         context.sendMessage(Message.raw("Expected true/false for notifications."));
                         yield null;
                     }
-                    yield current.withNotifications(flag);
+                    yield config -> config.withNotifications(flag);
                 }
                 case "chat-notifications" -> {
                     Boolean flag = parseBoolean(value);
@@ -102,7 +131,7 @@ public final class DeathNotificationCommand extends AbstractCommand {
                         context.sendMessage(Message.raw("Expected true/false for chat-notifications."));
                         yield null;
                     }
-                    yield current.withChatNotifications(flag);
+                    yield config -> config.withChatNotifications(flag);
                 }
                 case "hud-display-seconds" -> {
                     Long seconds = parseLong(value);
@@ -110,7 +139,7 @@ public final class DeathNotificationCommand extends AbstractCommand {
                         context.sendMessage(Message.raw("Expected a number >= 1 for hud-display-seconds."));
                         yield null;
                     }
-                    yield current.withHudDisplaySeconds(seconds);
+                    yield config -> config.withHudDisplaySeconds(seconds);
                 }
                 case "hud-notifications" -> {
                     Boolean flag = parseBoolean(value);
@@ -118,25 +147,137 @@ public final class DeathNotificationCommand extends AbstractCommand {
                         context.sendMessage(Message.raw("Expected true/false for hud-notifications."));
                         yield null;
                     }
-                    yield current.withHudNotifications(flag);
+                    yield config -> config.withHudNotifications(flag);
+                }
+                case "hud-coalesce-millis" -> {
+                    Long millis = parseLong(value);
+                    if (millis == null || millis < 0 || millis > DeathHudCoalescer.MAX_WINDOW_MILLIS) {
+                        context.sendMessage(Message.raw("Expected a number between 0 and "
+                            + DeathHudCoalescer.MAX_WINDOW_MILLIS + " for hud-coalesce-millis."));
+                        yield null;
+                    }
+                    yield config -> config.withHudCoalesceMillis(millis);
+                }
+                case "hud-summary-threshold" -> {
+                    Long threshold = parseLong(value);
+                    if (threshold == null || threshold < 2 || threshold > Integer.MAX_VALUE) {
+                        context.sendMessage(Message.raw("Expected a number >= 2 for hud-summary-threshold."));
+                        yield null;
+                    }
+                    yield config -> config.withHudSummaryThreshold(threshold.intValue());
+                }
+                case "pipeline-overflow-policy" -> {
+                    DeathAnnouncementPipeline.OverflowPolicy policy = DeathAnnouncementPipeline.OverflowPolicy.parse(value);
+                    if (policy == null) {
+                        context.sendMessage(Message.raw("Expected drop-newest or summarize for pipeline-overflow-policy."));
+                        yield null;
+                    }
+                    yield config -> config.withPipelineOverflowPolicy(policy);
+                }
+                case "notification-rate-limit", "hud-rate-limit", "chat-rate-limit" -> {
+                    Long perSecond = parseLong(value);
+                    if (perSecond == null || perSecond < 0) {
+                        context.sendMessage(Message.raw("Expected a number >= 0 (0 = unlimited) for " + option + "."));
+                        yield null;
+                    }
+                    yield config -> switch (option) {
+                        case "notification-rate-limit" -> config.withNotificationRateLimit(perSecond);
+                        case "hud-rate-limit" -> config.withHudRateLimit(perSecond);
+                        default -> config.withChatRateLimit(perSecond);
+                    };
+                }
+                case "rate-limit-burst" -> {
+                    Long burst = parseLong(value);
+                    if (burst == null || burst < 1) {
+                        context.sendMessage(Message.raw("Expected a number >= 1 for rate-limit-burst."));
+                        yield null;
+                    }
+                    yield config -> config.withRateLimitBurst(burst);
+                }
+                case "rate-limit-summary-seconds" -> {
+                    Long seconds = parseLong(value);
+                    if (seconds == null || seconds < 1) {
+                        context.sendMessage(Message.raw("Expected a number >= 1 for rate-limit-summary-seconds."));
+                        yield null;
+                    }
+                    yield config -> config.withRateLimitSummarySeconds(seconds);
+                }
+                case "notification-scope", "hud-scope", "chat-scope" -> {
+                    DeliveryScope scope = DeliveryScope.parse(value);
+                    if (scope == null) {
+                        context.sendMessage(Message.raw("Expected universe, world or radius for " + option + "."));
+                        yield null;
+                    }
+                    yield config -> switch (option) {
+                        case "notification-scope" -> config.withNotificationScope(scope);
+                        case "hud-scope" -> config.withHudScope(scope);
+                        default -> config.withChatScope(scope);
+                    };
+                }
+                case "scope-radius" -> {
+                    Long radius = parseLong(value);
+                    if (radius == null || radius < 1 || radius > DeliveryScope.MAX_RADIUS) {
+                        context.sendMessage(Message.raw("Expected a number between 1 and "
+                            + DeliveryScope.MAX_RADIUS + " for scope-radius."));
+                        yield null;
+                    }
+                    yield config -> config.withScopeRadius(radius);
+                }
+                case "per-player-language" -> {
+                    Boolean flag = parseBoolean(value);
+                    if (flag == null) {
+                        context.sendMessage(Message.raw("Expected true/false for per-player-language."));
+                        yield null;
+                    }
+                    yield config -> config.withPerPlayerLanguage(flag);
+                }
+                case "locale-cache-size" -> {
+                    Long size = parseLong(value);
+                    if (size == null || size < 1 || size > 256) {
+                        context.sendMessage(Message.raw("Expected a number between 1 and 256 for locale-cache-size."));
+                        yield null;
+                    }
+                    yield config -> config.withLocaleCacheSize(size.intValue());
+                }
+                case "metrics-enabled" -> {
+                    Boolean flag = parseBoolean(value);
+                    if (flag == null) {
+                        context.sendMessage(Message.raw("Expected true/false for metrics-enabled."));
+                        yield null;
+                    }
+                    yield config -> config.withMetricsEnabled(flag);
+                }
+                case "metrics-snapshot-seconds" -> {
+                    Long seconds = parseLong(value);
+                    if (seconds == null || seconds < 0) {
+                        context.sendMessage(Message.raw("Expected a number >= 0 for metrics-snapshot-seconds."));
+                        yield null;
+                    }
+                    yield config -> config.withMetricsSnapshotSeconds(seconds);
+                }
+                case "death-log" -> {
+                    DeathLog.Verbosity verbosity = DeathLog.Verbosity.parse(value);
+                    if (verbosity == null) {
+                        context.sendMessage(Message.raw("Expected off, deaths or detailed for death-log."));
+                        yield null;
+                    }
+                    yield config -> config.withDeathLogVerbosity(verbosity);
                 }
                 default -> null;
             };
 
-            if (updated == null) {
-                return CompletableFuture.completedFuture(null);
-            }
-
-            try {
-                updated.save(announcer.getDataDirectory());
-            } catch (IOException exception) {
-                context.sendMessage(Message.raw("Failed to persist configuration: " + exception.getMessage()));
+            if (edit == null) {
                 return CompletableFuture.completedFuture(null);
             }
 
-            announcer.reloadConfiguration(context.sender());
-            context.sendMessage(Message.raw("Set " + option + " to '" + value + "'."));
-            return CompletableFuture.completedFuture(null);
+            return announcer.updateConfiguration(edit).handle((ignored, failure) -> {
+                if (failure != null) {
+                    context.sendMessage(Message.raw("Failed to persist configuration: " + failureMessage(failure)));
+                } else {
+                    context.sendMessage(Message.raw("Set " + option + " to '" + value + "'."));
+                }
+                return null;
+            });
         }
 
         private Boolean parseBoolean(String value) {
@@ -166,13 +307,19 @@ public final class DeathNotificationCommand extends AbstractCommand {
     private final class ReloadSubCommand extends AbstractCommand {
         private ReloadSubCommand() {
             super("reload", "Reload death notification configuration");
+            requirePermission(ADMIN_PERMISSION);
         }
 
         @Override
         protected CompletableFuture<Void> execute(CommandContext context) {
-            announcer.reloadConfiguration(context.sender());
-            context.sendMessage(Message.raw("Death announcer configuration reloaded."));
-            return CompletableFuture.completedFuture(null);
+            return announcer.reloadConfiguration(context.sender()).handle((ignored, failure) -> {
+                if (failure != null) {
+                    context.sendMessage(Message.raw("Failed to reload configuration: " + failureMessage(failure)));
+                } else {
+                    context.sendMessage(Message.raw("Death announcer configuration reloaded."));
+                }
+                return null;
+            });
         }
     }
 
@@ -181,6 +328,7 @@ public final class DeathNotificationCommand extends AbstractCommand {
 
         private TestSubCommand() {
             super("test", "Simulate all death notifications");
+            requirePermission(ADMIN_PERMISSION);
             orderedCauses = new ArrayList<>();
             announcementSystem.getSupportedCauses().forEach(orderedCauses::add);
         }
@@ -201,4 +349,259 @@ public final class DeathNotificationCommand extends AbstractCommand {
             return CompletableFuture.completedFuture(null);
         }
     }
+
+    private final class CausesSubCommand extends AbstractCommand {
+        private CausesSubCommand() {
+            super("causes", "List how damage causes map to categories and icons");
+            requirePermission(ADMIN_PERMISSION);
+        }
+
+        @Override
+        protected CompletableFuture<Void> execute(CommandContext context) {
+            CauseTable table = announcementSystem.getCauseTable();
+            CommandSender sender = context.sender();
+            // Line counts come from the bundle the sender's own announcements are rendered with.
+            LocalizationBundle bundle = announcementSystem.bundleForPlayer(
+                sender != null && context.isPlayer() ? sender.getUuid() : null);
+            List<CauseTable.ResolvedCause> known = table.entries();
+            List<CauseTable.ResolvedCause> runtime = table.runtimeEntries();
+            context.sendMessage(Message.raw("Known causes (" + known.size() + "):"));
+            known.forEach(cause -> context.sendMessage(Message.raw(describe(cause, bundle))));
+            if (!runtime.isEmpty()) {
+                context.sendMessage(Message.raw("Runtime causes (" + runtime.size() + "):"));
+                runtime.forEach(cause -> context.sendMessage(Message.raw(describe(cause, bundle))));
+            }
+            DamageCauseProbe.Stats probeStats = DamageCauseProbe.stats();
+            context.sendMessage(Message.raw("Damage probe cache: " + probeStats.hits() + " hits, "
+                + probeStats.misses() + " misses"));
+            probeStats.types().forEach(type -> context.sendMessage(Message.raw(" - " + type.typeName() + ": "
+                + type.uses() + " deaths, " + type.getterCount() + " getter(s)")));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private String describe(CauseTable.ResolvedCause cause, LocalizationBundle bundle) {
+            return " - " + cause.id() + " -> " + cause.category() + " (" + bundle.getLines(cause.category()).size()
+                + " lines, " + cause.hudTexturePath() + ")";
+        }
+    }
+
+    private final class PipelineSubCommand extends AbstractCommand {
+        private PipelineSubCommand() {
+            super("pipeline", "Show the death announcement queue state");
+            requirePermission(ADMIN_PERMISSION);
+        }
+
+        @Override
+        protected CompletableFuture<Void> execute(CommandContext context) {
+            DeathAnnouncementPipeline.Stats stats = announcementSystem.getPipelineStats();
+            context.sendMessage(Message.raw("Queue depth " + stats.depth() + "/" + stats.capacity()
+                + " (max " + stats.maxDepth() + "), policy " + stats.overflowPolicy().configName()));
+            context.sendMessage(Message.raw("Submitted " + stats.submitted() + ", processed " + stats.processed()
+                + ", dropped " + stats.dropped() + " (" + stats.summarized() + " summarized)"));
+            DeathJournal.Stats journal = announcementSystem.getJournalStats();
+            if (journal.enabled()) {
+                context.sendMessage(Message.raw("Journal: " + journal.written() + "/" + journal.appended()
+                    + " written, " + journal.dropped() + " dropped, " + journal.syncs() + " syncs, depth "
+                    + journal.depth()));
+            }
+            DeathLog.Stats deathLog = announcementSystem.getDeathLogStats();
+            context.sendMessage(Message.raw("Death log (" + deathLog.verbosity().configName() + "): "
+                + deathLog.written() + " written, " + deathLog.dropped() + " dropped, depth " + deathLog.depth()));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private final class MetricsSubCommand extends AbstractCommand {
+        private final OptionalArg<String> actionArg;
+
+        private MetricsSubCommand() {
+            super("metrics", "Show announcement latency metrics");
+            requirePermission(ADMIN_PERMISSION);
+            actionArg = withOptionalArg("action", "reset to clear the histograms", ArgTypes.STRING);
+        }
+
+        @Override
+        protected CompletableFuture<Void> execute(CommandContext context) {
+            AnnouncementMetrics metrics = announcementSystem.getMetrics();
+            if (context.provided(actionArg)) {
+                if (!context.get(actionArg).trim().equalsIgnoreCase("reset")) {
+                    context.sendMessage(Message.raw("Usage: /deathnotification metrics [reset]"));
+                    return CompletableFuture.completedFuture(null);
+                }
+                metrics.reset();
+                context.sendMessage(Message.raw("Announcement metrics reset."));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            AnnouncementMetrics.Snapshot snapshot = metrics.snapshot();
+            if (!snapshot.enabled()) {
+                context.sendMessage(Message.raw("Announcement metrics are disabled (metrics-enabled: false)."));
+                return CompletableFuture.completedFuture(null);
+            }
+            context.sendMessage(Message.raw(String.format(Locale.ROOT, "Announcement metrics over %.0fs:",
+                snapshot.seconds())));
+            for (AnnouncementMetrics.StageSummary stage : snapshot.stages()) {
+                if (stage.count() == 0L) {
+                    continue;
+                }
+                context.sendMessage(Message.raw(String.format(Locale.ROOT,
+                    " - %s: %d (%.2f/s), p50 %s, p99 %s, max %s", stage.stage().configName(), stage.count(),
+                    stage.perSecond(), formatNanos(stage.p50Nanos()), formatNanos(stage.p99Nanos()),
+                    formatNanos(stage.maxNanos()))));
+            }
+            StringBuilder counters = new StringBuilder("Counters:");
+            snapshot.counters().forEach((counter, value) -> counters.append(' ').append(counter.configName())
+                .append('=').append(value));
+            context.sendMessage(Message.raw(counters.toString()));
+            context.sendMessage(Message.raw("Locale cache: " + announcementSystem.getLocaleBundles().size()
+                + " language(s)"));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private String formatNanos(long nanos) {
+            if (nanos < 1_000L) {
+                return nanos + "ns";
+            }
+            if (nanos < 1_000_000L) {
+                return String.format(Locale.ROOT, "%.1fus", nanos / 1_000.0);
+            }
+            return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+        }
+    }
+
+    private final class PreferencesSubCommand extends AbstractCommand {
+        private final OptionalArg<String> channelArg;
+        private final OptionalArg<String> stateArg;
+
+        private PreferencesSubCommand() {
+            super("prefs", "Choose which death announcements you receive");
+            channelArg = withOptionalArg("channel", "Announcement channel (hud/notifications/chat/all)", ArgTypes.STRING);
+            stateArg = withOptionalArg("state", "on to receive the channel, off to mute it", ArgTypes.STRING);
+        }
+
+        @Override
+        protected CompletableFuture<Void> execute(CommandContext context) {
+            CommandSender sender = context.sender();
+            UUID uuid = sender != null && context.isPlayer() ? sender.getUuid() : null;
+            if (uuid == null) {
+                context.sendMessage(Message.raw("Only players can change death announcement preferences."));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            PlayerPreferenceStore preferences = announcementSystem.getPreferences();
+            if (!context.provided(channelArg)) {
+                describe(context, preferences, uuid);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            String channelName = context.get(channelArg).trim().toLowerCase(Locale.ROOT);
+            List<DeathRateLimiter.Channel> channels = switch (channelName) {
+                case "hud" -> List.of(DeathRateLimiter.Channel.HUD);
+                case "notifications", "notification" -> List.of(DeathRateLimiter.Channel.NOTIFICATION);
+                case "chat" -> List.of(DeathRateLimiter.Channel.CHAT);
+                case "all" -> List.of(DeathRateLimiter.Channel.values());
+                default -> null;
+            };
+            if (channels == null) {
+                context.sendMessage(Message.raw("Expected hud, notifications, chat or all."));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            Boolean receive = context.provided(stateArg) ? parseState(context.get(stateArg)) : null;
+            if (receive == null) {
+                context.sendMessage(Message.raw("Usage: /deathnotification prefs <hud|notifications|chat|all> <on|off>"));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            channels.forEach(channel -> preferences.setMuted(uuid, channel, !receive));
+            describe(context, preferences, uuid);
+            if (!receive && channels.contains(DeathRateLimiter.Channel.NOTIFICATION)
+                && !announcementSystem.supportsPlayerNotifications()) {
+                context.sendMessage(Message.raw("This server cannot target notifications per player yet; "
+                    + "the preference applies once it can."));
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private void describe(CommandContext context, PlayerPreferenceStore preferences, UUID uuid) {
+            context.sendMessage(Message.raw("Death announcements: hud "
+                + state(preferences, uuid, DeathRateLimiter.Channel.HUD)
+                + ", notifications " + state(preferences, uuid, DeathRateLimiter.Channel.NOTIFICATION)
+                + ", chat " + state(preferences, uuid, DeathRateLimiter.Channel.CHAT)));
+        }
+
+        private String state(PlayerPreferenceStore preferences, UUID uuid, DeathRateLimiter.Channel channel) {
+            return preferences.isMuted(uuid, channel) ? "off" : "on";
+        }
+
+        private Boolean parseState(String value) {
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "on", "true", "yes", "1" -> true;
+                case "off", "false", "no", "0" -> false;
+                default -> null;
+            };
+        }
+    }
+
+    private final class StatsSubCommand extends AbstractCommand {
+        private static final int LISTED_CAUSES = 5;
+
+        private final OptionalArg<String> targetArg;
+
+        private StatsSubCommand() {
+            super("stats", "Show death statistics and leaderboards");
+            targetArg = withOptionalArg("target", "top, a cause id, or a player name", ArgTypes.STRING);
+        }
+
+        @Override
+        protected CompletableFuture<Void> execute(CommandContext context) {
+            DeathStatistics statistics = announcementSystem.getStatistics();
+            String target = context.provided(targetArg) ? context.get(targetArg).trim() : "top";
+            if (target.isEmpty() || target.equalsIgnoreCase("top")) {
+                context.sendMessage(Message.raw("Deaths: " + statistics.totalDeaths() + " total, "
+                    + statistics.sessionDeaths() + " this session"));
+                sendStandings(context, "Most deaths", statistics.mostDeaths());
+                sendStandings(context, "Most deaths this session", statistics.sessionLeaders());
+                List<DeathStatistics.Standing> causes = statistics.causes();
+                sendStandings(context, "Deadliest causes", causes.subList(0, Math.min(LISTED_CAUSES, causes.size())));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            DeathStatistics.CauseSummary cause = statistics.cause(target);
+            if (cause != null) {
+                context.sendMessage(Message.raw("Cause " + cause.cause() + ": " + cause.deaths() + " deaths"));
+                sendStandings(context, "Most deaths by " + cause.cause(), cause.topPlayers());
+                return CompletableFuture.completedFuture(null);
+            }
+
+            DeathStatistics.PlayerSummary player = statistics.player(target);
+            if (player != null) {
+                context.sendMessage(Message.raw(player.name() + ": " + player.deaths() + " deaths, "
+                    + player.sessionDeaths() + " this session"));
+                List<DeathStatistics.Standing> causes = player.causes();
+                sendStandings(context, "Causes", causes.subList(0, Math.min(LISTED_CAUSES, causes.size())));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            context.sendMessage(Message.raw("No deaths recorded for '" + target + "'."));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private void sendStandings(CommandContext context, String heading, List<DeathStatistics.Standing> standings) {
+            if (standings.isEmpty()) {
+                return;
+            }
+            context.sendMessage(Message.raw(heading + ":"));
+            for (int i = 0; i < standings.size(); i++) {
+                DeathStatistics.Standing standing = standings.get(i);
+                context.sendMessage(Message.raw(" " + (i + 1) + ". " + standing.name() + " - " + standing.deaths()));
+            }
+        }
+    }
+
+    private static String failureMessage(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
 }
@@ -1,35 +1,45 @@
 package com.bumenfeld;
 
 import com.hypixel.hytale.server.core.entity.entities.player.hud.CustomUIHud;
-import com.hypixel.hytale.server.core.ui.PatchStyle;
-import com.hypixel.hytale.server.core.ui.Value;
 import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 
 import java.util.Objects;
 
+/**
+ * Death HUD of one player, bound to a shared {@link DeathHudPayload}. {@link #build} sends the whole UI document when
+ * the HUD is mounted; while it stays mounted, {@link #patch} sends only the properties that changed since.
+ */
 public final class DeathNotificationHud extends CustomUIHud {
-    private final String title;
-    private final String subtitle;
-    private final String uiPath;
-    private final String iconTexturePath;
+    private DeathHudPayload payload;
 
-    public DeathNotificationHud(PlayerRef playerRef, String title, String subtitle, String uiPath, String iconTexturePath) {
+    DeathNotificationHud(PlayerRef playerRef, DeathHudPayload payload) {
         super(playerRef);
-        this.title = Objects.requireNonNullElse(title, "");
-        this.subtitle = Objects.requireNonNullElse(subtitle, "");
-        this.uiPath = Objects.requireNonNullElse(uiPath, "death_notification.ui");
-        this.iconTexturePath = Objects.requireNonNullElse(iconTexturePath, "");
+        this.payload = Objects.requireNonNull(payload, "payload");
     }
 
     @Override
     protected void build(UICommandBuilder builder) {
-        builder.append(uiPath);
-        if (!iconTexturePath.isBlank()) {
-            PatchStyle iconStyle = new PatchStyle().setTexturePath(Value.of(iconTexturePath));
-            builder.setObject("#DeathIcon.Background", iconStyle);
+        payload.build(builder);
+    }
+
+    /**
+     * Sends the properties of {@code next} that differ from what the mounted HUD shows. Returns {@code false}
+     * without sending anything when the change cannot be expressed as a delta, in which case the HUD has to be
+     * mounted again.
+     */
+    boolean patch(DeathHudPayload next) {
+        if (next == payload) {
+            return true;
+        }
+        if (!next.canPatch(payload)) {
+            return false;
+        }
+        UICommandBuilder builder = next.deltaFrom(payload);
+        if (builder != null) {
+            update(false, builder);
         }
-        builder.set("#DeathTitle.Text", title);
-        builder.set("#DeathSubtitle.Text", subtitle);
+        payload = next;
+        return true;
     }
 }
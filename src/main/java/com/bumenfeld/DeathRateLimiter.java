@@ -0,0 +1,197 @@
+package com.bumenfeld;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Token-bucket budget per world and announcement channel.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next announcement
+ * (GCRA), so {@link #tryAcquire} is one read and at most a few CAS attempts. Deaths that exceed the budget are
+ * counted per category and reported through the {@link SummarySink} once per summary interval.
+ */
+final class DeathRateLimiter {
+    private static final Logger LOGGER = Logger.getLogger(DeathRateLimiter.class.getName());
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-rate-summary");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentMap<String, WorldBuckets> worlds = new ConcurrentHashMap<>();
+    private final SummarySink summarySink;
+    private volatile Settings settings;
+    private volatile long lastSummaryNanos = System.nanoTime();
+
+    DeathRateLimiter(Settings settings, SummarySink summarySink) {
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.summarySink = Objects.requireNonNull(summarySink, "summarySink");
+        scheduler.scheduleAtFixedRate(this::summarizeIfDue, 1L, 1L, TimeUnit.SECONDS);
+    }
+
+    boolean tryAcquire(String worldName, Channel channel, String category) {
+        Settings current = settings;
+        long perSecond = current.perSecond(channel);
+        if (perSecond <= 0L) {
+            return true;
+        }
+
+        Bucket bucket = bucketFor(worldName, channel);
+        long interval = NANOS_PER_SECOND / perSecond;
+        long tolerance = interval * Math.max(0L, current.burst() - 1L);
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = bucket.theoreticalArrival.get();
+            long start = arrival - now > 0L ? arrival : now;
+            if (start - now > tolerance) {
+                bucket.suppress(category);
+                return false;
+            }
+            if (bucket.theoreticalArrival.compareAndSet(arrival, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counts a death that was never offered to {@link #tryAcquire} towards the next summary of every channel.
+     */
+    void suppress(String worldName, String category) {
+        for (Channel channel : Channel.VALUES) {
+            bucketFor(worldName, channel).suppress(category);
+        }
+    }
+
+    void configure(Settings newSettings) {
+        this.settings = Objects.requireNonNull(newSettings, "newSettings");
+    }
+
+    Settings getSettings() {
+        return settings;
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+        worlds.clear();
+    }
+
+    private Bucket bucketFor(String worldName, Channel channel) {
+        String key = worldName == null ? "" : worldName;
+        WorldBuckets buckets = worlds.get(key);
+        if (buckets == null) {
+            buckets = worlds.computeIfAbsent(key, WorldBuckets::new);
+        }
+        return buckets.channels[channel.ordinal()];
+    }
+
+    private void summarizeIfDue() {
+        long now = System.nanoTime();
+        long interval = TimeUnit.SECONDS.toNanos(settings.summarySeconds());
+        if (now - lastSummaryNanos < interval) {
+            return;
+        }
+        lastSummaryNanos = now;
+
+        for (WorldBuckets buckets : worlds.values()) {
+            for (Channel channel : Channel.VALUES) {
+                Bucket bucket = buckets.channels[channel.ordinal()];
+                long suppressed = bucket.suppressed.sumThenReset();
+                if (suppressed == 0L) {
+                    continue;
+                }
+                String dominantCategory = bucket.drainDominantCategory();
+                try {
+                    summarySink.summarize(buckets.worldName, channel, suppressed, dominantCategory);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Failed to announce rate-limited death summary", ex);
+                }
+            }
+        }
+    }
+
+    enum Channel {
+        NOTIFICATION,
+        HUD,
+        CHAT;
+
+        private static final Channel[] VALUES = values();
+    }
+
+    /**
+     * Announcements allowed per second and world for each channel; zero disables the limit for that channel.
+     */
+    record Settings(long notificationsPerSecond,
+                    long hudPerSecond,
+                    long chatPerSecond,
+                    long burst,
+                    long summarySeconds) {
+        Settings {
+            burst = Math.max(1L, burst);
+            summarySeconds = Math.max(1L, summarySeconds);
+        }
+
+        long perSecond(Channel channel) {
+            return switch (channel) {
+                case NOTIFICATION -> notificationsPerSecond;
+                case HUD -> hudPerSecond;
+                case CHAT -> chatPerSecond;
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface SummarySink {
+        void summarize(String worldName, Channel channel, long suppressedDeaths, String dominantCategory);
+    }
+
+    private static final class WorldBuckets {
+        private final String worldName;
+        private final Bucket[] channels = new Bucket[Channel.VALUES.length];
+
+        private WorldBuckets(String worldName) {
+            this.worldName = worldName;
+            for (int i = 0; i < channels.length; i++) {
+                channels[i] = new Bucket();
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+        private final LongAdder suppressed = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> suppressedByCategory = new ConcurrentHashMap<>();
+
+        private void suppress(String category) {
+            suppressed.increment();
+            String key = category == null ? "generic" : category;
+            LongAdder counter = suppressedByCategory.get(key);
+            if (counter == null) {
+                counter = suppressedByCategory.computeIfAbsent(key, ignored -> new LongAdder());
+            }
+            counter.increment();
+        }
+
+        private String drainDominantCategory() {
+            String dominant = "generic";
+            long best = 0L;
+            for (Map.Entry<String, LongAdder> entry : suppressedByCategory.entrySet()) {
+                long count = entry.getValue().sumThenReset();
+                if (count > best) {
+                    best = count;
+                    dominant = entry.getKey();
+                }
+            }
+            return dominant;
+        }
+    }
+}
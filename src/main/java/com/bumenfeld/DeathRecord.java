@@ -0,0 +1,20 @@
+package com.bumenfeld;
+
+import java.util.UUID;
+
+/**
+ * Everything needed to announce one death, captured on the world thread at the moment of death. The player UUID is
+ * {@code null} and the position {@code NaN} when they are unknown. {@code capturedNanos} is the
+ * {@link AnnouncementMetrics#start()} taken at capture, so deliveries can be timed end to end.
+ */
+record DeathRecord(long timestampMillis,
+                   UUID playerUuid,
+                   String playerName,
+                   String causeName,
+                   String killerName,
+                   String worldName,
+                   double x,
+                   double y,
+                   double z,
+                   long capturedNanos) {
+}
@@ -0,0 +1,513 @@
+package com.bumenfeld;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Running death counts per player and cause, kept current as deaths happen so queries never scan history.
+ *
+ * <p>Cause names are interned into dense ids that index primitive counter arrays. Each player's counters are
+ * guarded by that player's own monitor, so the world thread only increments counters and, the first time a player
+ * dies since the last pass, queues the player as dirty. The statistics thread drains that queue every
+ * {@value #LEADERBOARD_MILLIS} ms and updates the leaderboards, each a bounded indexed min-heap, at
+ * O(log {@value #LEADERBOARD_SIZE}) per leaderboard, so leaderboard upkeep and {@code stats} queries never contend
+ * with the world thread. All-time counts are snapshotted to {@code statistics.bin} every few minutes and on shutdown;
+ * loading rebuilds the leaderboards from the snapshot.
+ */
+final class DeathStatistics {
+    static final int LEADERBOARD_SIZE = 10;
+    private static final Logger LOGGER = Logger.getLogger(DeathStatistics.class.getName());
+    private static final String FILE_NAME = "statistics.bin";
+    private static final int MAGIC = 0x44535441;
+    private static final int VERSION = 1;
+    private static final int MAX_CAUSES = 512;
+    private static final int OTHER_CAUSE_ID = MAX_CAUSES - 1;
+    private static final long SNAPSHOT_MINUTES = 5L;
+    private static final long LEADERBOARD_MILLIS = 200L;
+
+    private final Path file;
+    private final ConcurrentMap<String, Integer> causeIds = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> causeNames = new AtomicReferenceArray<>(MAX_CAUSES);
+    private final AtomicLongArray causeTotals = new AtomicLongArray(MAX_CAUSES);
+    private final AtomicReferenceArray<Leaderboard> causeLeaders = new AtomicReferenceArray<>(MAX_CAUSES);
+    private final LongAdder totalDeaths = new LongAdder();
+    private final LongAdder sessionDeaths = new LongAdder();
+    private final ConcurrentMap<UUID, PlayerStats> players = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PlayerStats> playersByName = new ConcurrentHashMap<>();
+    private final Leaderboard mostDeaths = new Leaderboard();
+    private final Leaderboard sessionLeaders = new Leaderboard();
+    private final Queue<PlayerStats> dirtyPlayers = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-statistics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int causeCount;
+    private volatile boolean dirty;
+
+    // Statistics thread state.
+    private final int[] drainedCauses = new int[MAX_CAUSES];
+    private final long[] drainedCounts = new long[MAX_CAUSES];
+
+    private DeathStatistics(Path file) {
+        this.file = file;
+        // Registered by name so the bucket keeps its id when a snapshot is read back.
+        causeNames.set(OTHER_CAUSE_ID, "other");
+        causeIds.put("other", OTHER_CAUSE_ID);
+        scheduler.scheduleWithFixedDelay(this::snapshotIfDirty, SNAPSHOT_MINUTES, SNAPSHOT_MINUTES, TimeUnit.MINUTES);
+        scheduler.scheduleWithFixedDelay(this::updateLeaderboards, LEADERBOARD_MILLIS, LEADERBOARD_MILLIS,
+            TimeUnit.MILLISECONDS);
+    }
+
+    static DeathStatistics load(Path dataDirectory) {
+        DeathStatistics statistics = new DeathStatistics(dataDirectory.resolve(FILE_NAME));
+        if (Files.exists(statistics.file)) {
+            try {
+                statistics.read();
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Unable to read " + FILE_NAME + "; starting with empty statistics.", ex);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Counts one death; called on the world thread, so it only touches counters and queues the player for the next
+     * leaderboard update.
+     */
+    void record(UUID playerUuid, String playerName, String causeName) {
+        int causeId = causeId(causeName);
+        totalDeaths.increment();
+        sessionDeaths.increment();
+        causeTotals.incrementAndGet(causeId);
+        dirty = true;
+        if (playerUuid == null) {
+            return;
+        }
+
+        PlayerStats stats = players.get(playerUuid);
+        if (stats == null) {
+            stats = players.computeIfAbsent(playerUuid, PlayerStats::new);
+        }
+        String previousName;
+        boolean queue;
+        synchronized (stats) {
+            previousName = stats.name;
+            if (playerName != null) {
+                stats.name = playerName;
+            }
+            stats.total++;
+            stats.session++;
+            stats.increment(causeId);
+            stats.dirtyCauses.set(causeId);
+            queue = !stats.queued;
+            stats.queued = true;
+        }
+        if (playerName != null && !playerName.equals(previousName)) {
+            playersByName.put(playerName.toLowerCase(Locale.ROOT), stats);
+        }
+        if (queue) {
+            dirtyPlayers.offer(stats);
+        }
+    }
+
+    long totalDeaths() {
+        return totalDeaths.sum();
+    }
+
+    long sessionDeaths() {
+        return sessionDeaths.sum();
+    }
+
+    List<Standing> mostDeaths() {
+        return mostDeaths.standings();
+    }
+
+    List<Standing> sessionLeaders() {
+        return sessionLeaders.standings();
+    }
+
+    /**
+     * Causes ordered by all-time deaths, most frequent first.
+     */
+    List<Standing> causes() {
+        List<Standing> causes = new ArrayList<>();
+        for (int id = 0; id < MAX_CAUSES; id++) {
+            long count = causeTotals.get(id);
+            String name = causeNames.get(id);
+            if (count > 0L && name != null) {
+                causes.add(new Standing(name, count));
+            }
+        }
+        causes.sort(Comparator.comparingLong(Standing::deaths).reversed());
+        return causes;
+    }
+
+    /**
+     * Returns the all-time total and top players for one cause, or {@code null} when the cause never killed anyone.
+     */
+    CauseSummary cause(String causeName) {
+        Integer id = causeIds.get(normalize(causeName));
+        if (id == null || causeTotals.get(id) == 0L) {
+            return null;
+        }
+        Leaderboard leaders = causeLeaders.get(id);
+        return new CauseSummary(causeNames.get(id), causeTotals.get(id),
+            leaders == null ? List.of() : leaders.standings());
+    }
+
+    PlayerSummary player(String playerName) {
+        if (playerName == null) {
+            return null;
+        }
+        PlayerStats stats = playersByName.get(playerName.trim().toLowerCase(Locale.ROOT));
+        if (stats == null) {
+            return null;
+        }
+        List<Standing> byCause = new ArrayList<>();
+        synchronized (stats) {
+            for (int id = 0; id < stats.byCause.length; id++) {
+                if (stats.byCause[id] > 0L) {
+                    byCause.add(new Standing(causeNames.get(id), stats.byCause[id]));
+                }
+            }
+            byCause.sort(Comparator.comparingLong(Standing::deaths).reversed());
+            return new PlayerSummary(stats.name, stats.total, stats.session, byCause);
+        }
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+        snapshot();
+    }
+
+    private int causeId(String causeName) {
+        String key = normalize(causeName);
+        Integer id = causeIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (causeIds) {
+            id = causeIds.get(key);
+            if (id != null) {
+                return id;
+            }
+            if (causeCount >= OTHER_CAUSE_ID) {
+                return OTHER_CAUSE_ID;
+            }
+            int next = causeCount++;
+            causeNames.set(next, key);
+            causeIds.put(key, next);
+            return next;
+        }
+    }
+
+    private static String normalize(String causeName) {
+        return causeName == null || causeName.isBlank() ? "unknown" : causeName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Leaderboard leaderboardFor(int causeId) {
+        Leaderboard leaders = causeLeaders.get(causeId);
+        if (leaders == null) {
+            causeLeaders.compareAndSet(causeId, null, new Leaderboard());
+            leaders = causeLeaders.get(causeId);
+        }
+        return leaders;
+    }
+
+    /**
+     * Moves the counts of players who died since the last pass into the leaderboards; runs on the statistics thread.
+     */
+    private void updateLeaderboards() {
+        PlayerStats stats;
+        while ((stats = dirtyPlayers.poll()) != null) {
+            long total;
+            long session;
+            int causes = 0;
+            synchronized (stats) {
+                stats.queued = false;
+                total = stats.total;
+                session = stats.session;
+                for (int id = stats.dirtyCauses.nextSetBit(0); id >= 0; id = stats.dirtyCauses.nextSetBit(id + 1)) {
+                    drainedCauses[causes] = id;
+                    drainedCounts[causes++] = stats.byCause[id];
+                }
+                stats.dirtyCauses.clear();
+            }
+            mostDeaths.update(stats, total);
+            sessionLeaders.update(stats, session);
+            for (int i = 0; i < causes; i++) {
+                leaderboardFor(drainedCauses[i]).update(stats, drainedCounts[i]);
+            }
+        }
+    }
+
+    private void snapshotIfDirty() {
+        if (dirty) {
+            snapshot();
+        }
+    }
+
+    private synchronized void snapshot() {
+        dirty = false;
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+                write(output);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            dirty = true;
+            LOGGER.log(Level.WARNING, "Unable to save " + FILE_NAME, ex);
+        }
+    }
+
+    private void write(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(totalDeaths.sum());
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < MAX_CAUSES; id++) {
+            if (causeNames.get(id) != null) {
+                ids.add(id);
+            }
+        }
+        output.writeInt(ids.size());
+        for (int id : ids) {
+            output.writeShort(id);
+            output.writeUTF(causeNames.get(id));
+            output.writeLong(causeTotals.get(id));
+        }
+
+        List<PlayerStats> snapshot = new ArrayList<>(players.values());
+        output.writeInt(snapshot.size());
+        for (PlayerStats stats : snapshot) {
+            String name;
+            long total;
+            long[] byCause;
+            synchronized (stats) {
+                name = stats.name;
+                total = stats.total;
+                byCause = stats.byCause.clone();
+            }
+            output.writeLong(stats.uuid.getMostSignificantBits());
+            output.writeLong(stats.uuid.getLeastSignificantBits());
+            output.writeUTF(name == null ? "" : name);
+            output.writeLong(total);
+            int nonZero = 0;
+            for (long count : byCause) {
+                if (count > 0L) {
+                    nonZero++;
+                }
+            }
+            output.writeShort(nonZero);
+            for (int id = 0; id < byCause.length; id++) {
+                if (byCause[id] > 0L) {
+                    output.writeShort(id);
+                    output.writeLong(byCause[id]);
+                }
+            }
+        }
+    }
+
+    private void read() throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Unknown statistics format");
+            }
+            totalDeaths.add(input.readLong());
+            int causes = input.readInt();
+            Map<Integer, Integer> remap = new HashMap<>();
+            for (int i = 0; i < causes; i++) {
+                int storedId = input.readUnsignedShort();
+                int id = causeId(input.readUTF());
+                remap.put(storedId, id);
+                causeTotals.addAndGet(id, input.readLong());
+            }
+
+            int playerCount = input.readInt();
+            for (int i = 0; i < playerCount; i++) {
+                PlayerStats stats = new PlayerStats(new UUID(input.readLong(), input.readLong()));
+                String name = input.readUTF();
+                stats.name = name.isEmpty() ? null : name;
+                stats.total = input.readLong();
+                int entries = input.readUnsignedShort();
+                for (int entry = 0; entry < entries; entry++) {
+                    int id = remap.getOrDefault(input.readUnsignedShort(), OTHER_CAUSE_ID);
+                    stats.add(id, input.readLong());
+                }
+                players.put(stats.uuid, stats);
+                if (stats.name != null) {
+                    playersByName.put(stats.name.toLowerCase(Locale.ROOT), stats);
+                }
+                mostDeaths.update(stats, stats.total);
+                for (int id = 0; id < stats.byCause.length; id++) {
+                    if (stats.byCause[id] > 0L) {
+                        leaderboardFor(id).update(stats, stats.byCause[id]);
+                    }
+                }
+            }
+        }
+    }
+
+    record Standing(String name, long deaths) {
+    }
+
+    record CauseSummary(String cause, long deaths, List<Standing> topPlayers) {
+    }
+
+    record PlayerSummary(String name, long deaths, long sessionDeaths, List<Standing> causes) {
+    }
+
+    private static final class PlayerStats {
+        private final UUID uuid;
+        private String name;
+        private long total;
+        private long session;
+        private long[] byCause = new long[8];
+        private final BitSet dirtyCauses = new BitSet();
+        private boolean queued;
+
+        private PlayerStats(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        private void increment(int causeId) {
+            ensureCapacity(causeId);
+            byCause[causeId]++;
+        }
+
+        private void add(int causeId, long count) {
+            ensureCapacity(causeId);
+            byCause[causeId] += count;
+        }
+
+        private void ensureCapacity(int causeId) {
+            if (causeId >= byCause.length) {
+                byCause = Arrays.copyOf(byCause, Math.min(MAX_CAUSES, Math.max(causeId + 1, byCause.length * 2)));
+            }
+        }
+    }
+
+    /**
+     * Top {@value #LEADERBOARD_SIZE} players by a monotonically increasing score, as a min-heap with a position index.
+     * A player outside the heap can only enter by beating the root, so each update is O(log K).
+     */
+    private static final class Leaderboard {
+        private final PlayerStats[] heap = new PlayerStats[LEADERBOARD_SIZE];
+        private final long[] scores = new long[LEADERBOARD_SIZE];
+        private final Map<PlayerStats, Integer> positions = new HashMap<>();
+        private int size;
+
+        private synchronized void update(PlayerStats player, long score) {
+            Integer position = positions.get(player);
+            if (position != null) {
+                scores[position] = Math.max(scores[position], score);
+                siftDown(position);
+                return;
+            }
+            if (size < LEADERBOARD_SIZE) {
+                place(size, player, score);
+                siftUp(size++);
+                return;
+            }
+            if (score <= scores[0]) {
+                return;
+            }
+            positions.remove(heap[0]);
+            place(0, player, score);
+            siftDown(0);
+        }
+
+        private synchronized List<Standing> standings() {
+            List<Standing> standings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String name;
+                synchronized (heap[i]) {
+                    name = heap[i].name;
+                }
+                standings.add(new Standing(name == null ? heap[i].uuid.toString() : name, scores[i]));
+            }
+            standings.sort(Comparator.comparingLong(Standing::deaths).reversed());
+            return standings;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] <= scores[index]) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void place(int index, PlayerStats player, long score) {
+            heap[index] = player;
+            scores[index] = score;
+            positions.put(player, index);
+        }
+
+        private void swap(int first, int second) {
+            PlayerStats player = heap[first];
+            long score = scores[first];
+            place(first, heap[second], scores[second]);
+            place(second, player, score);
+        }
+    }
+}
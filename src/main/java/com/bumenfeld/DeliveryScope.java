@@ -0,0 +1,61 @@
+package com.bumenfeld;
+
+import java.util.Locale;
+
+/**
+ * Which players receive an announcement channel.
+ */
+enum DeliveryScope {
+    /** Every player on the server. */
+    UNIVERSE,
+    /** Players in the world the death happened in. */
+    WORLD,
+    /** Players within {@code scope-radius} blocks of the death position. */
+    RADIUS;
+
+    /**
+     * Largest accepted {@code scope-radius}; a radius lookup visits every grid cell the radius covers.
+     */
+    static final long MAX_RADIUS = 4096L;
+
+    String configName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static DeliveryScope parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (DeliveryScope scope : values()) {
+            if (scope.configName().equals(normalized)) {
+                return scope;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scope of each announcement channel plus the radius used by {@link #RADIUS}.
+     */
+    record Settings(DeliveryScope notification, DeliveryScope hud, DeliveryScope chat, long radius) {
+        Settings {
+            notification = notification == null ? UNIVERSE : notification;
+            hud = hud == null ? UNIVERSE : hud;
+            chat = chat == null ? UNIVERSE : chat;
+            radius = Math.max(1L, Math.min(MAX_RADIUS, radius));
+        }
+
+        DeliveryScope scope(DeathRateLimiter.Channel channel) {
+            return switch (channel) {
+                case NOTIFICATION -> notification;
+                case HUD -> hud;
+                case CHAT -> chat;
+            };
+        }
+
+        boolean usesRadius() {
+            return notification == RADIUS || hud == RADIUS || chat == RADIUS;
+        }
+    }
+}
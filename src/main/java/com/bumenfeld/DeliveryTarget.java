@@ -0,0 +1,44 @@
+package com.bumenfeld;
+
+/**
+ * Resolved audience of one announcement: a scope plus the world and position it is centred on.
+ */
+record DeliveryTarget(DeliveryScope scope, String worldName, double x, double z) {
+    static final DeliveryTarget UNIVERSE = new DeliveryTarget(DeliveryScope.UNIVERSE, "", Double.NaN, Double.NaN);
+
+    /**
+     * Narrows {@code scope} to what the record supports: deaths without a world reach the universe, deaths without
+     * a position reach their world.
+     */
+    static DeliveryTarget of(DeliveryScope scope, DeathRecord record) {
+        if (scope == DeliveryScope.RADIUS && !Double.isNaN(record.x()) && !Double.isNaN(record.z())
+            && record.worldName() != null && !record.worldName().isEmpty()) {
+            return new DeliveryTarget(DeliveryScope.RADIUS, record.worldName(), record.x(), record.z());
+        }
+        return ofWorld(scope, record.worldName());
+    }
+
+    /**
+     * Target for announcements that have a world but no position, such as rate-limit summaries.
+     */
+    static DeliveryTarget ofWorld(DeliveryScope scope, String worldName) {
+        if (scope == DeliveryScope.UNIVERSE || worldName == null || worldName.isEmpty()) {
+            return UNIVERSE;
+        }
+        return new DeliveryTarget(DeliveryScope.WORLD, worldName, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Key under which HUD updates for this target are coalesced; radius targets in the same grid cell share a key,
+     * and their window reaches the players near any of its deaths.
+     */
+    Object coalescingKey() {
+        if (scope != DeliveryScope.RADIUS) {
+            return this;
+        }
+        return new RadiusKey(worldName, PlayerSpatialIndex.cellKey(x, z));
+    }
+
+    private record RadiusKey(String worldName, long cell) {
+    }
+}
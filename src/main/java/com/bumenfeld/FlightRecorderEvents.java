@@ -0,0 +1,131 @@
+package com.bumenfeld;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events emitted by the plugin, shown under "Death Announcer" in JMC.
+ *
+ * <p>Events on the announcement and HUD paths fire per death or per player, so they skip stack traces; their call
+ * sites are fixed and the thread is already recorded. Only the rare reload event keeps its stack trace. A disabled
+ * event costs one flag check, and fields that need work to compute are only filled when the event is enabled.
+ */
+final class FlightRecorderEvents {
+    private static final String CATEGORY = "Death Announcer";
+
+    private FlightRecorderEvents() {
+    }
+
+    @Name("com.bumenfeld.DeathAnnounced")
+    @Label("Death Announced")
+    @Description("Resolution, rate limiting and hand-off of one death on the announcement thread; the delivery to "
+        + "players is recorded per world as Announcement Fan-Out")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class DeathAnnounced extends Event {
+        @Label("Player")
+        String player;
+
+        @Label("Cause")
+        String cause;
+
+        @Label("Category")
+        String category;
+
+        @Label("World")
+        String world;
+
+        @Label("Notification")
+        boolean notification;
+
+        @Label("HUD")
+        boolean hud;
+
+        @Label("Chat")
+        boolean chat;
+    }
+
+    @Name("com.bumenfeld.AnnouncementFanOut")
+    @Label("Announcement Fan-Out")
+    @Description("Delivering one announcement to the players of one world on the world thread")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class AnnouncementFanOut extends Event {
+        @Label("Stage")
+        String stage;
+
+        @Label("World")
+        String world;
+
+        @Label("Recipients")
+        @Description("Players in the delivery scope, including those who muted the channel")
+        int recipients;
+    }
+
+    @Name("com.bumenfeld.HudShown")
+    @Label("Death HUD Shown")
+    @Description("Mounting or patching the death HUD of one spectator on the world thread")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class HudShown extends Event {
+        @Label("Player")
+        String player;
+
+        @Label("World")
+        String world;
+
+        @Label("Icon")
+        String icon;
+
+        @Label("Coalesced Deaths")
+        int deaths;
+
+        @Label("Patched")
+        @Description("Only changed properties were sent to a HUD that was still mounted")
+        boolean patched;
+    }
+
+    @Name("com.bumenfeld.HudReset")
+    @Label("Death HUD Reset")
+    @Description("Hiding expired death HUDs for one world on the world thread")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class HudReset extends Event {
+        @Label("World")
+        String world;
+
+        @Label("Players")
+        int players;
+    }
+
+    @Name("com.bumenfeld.NotificationDispatched")
+    @Label("Notification Dispatched")
+    @Description("One notification sent to a player or to the whole universe")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class NotificationDispatched extends Event {
+        @Label("Strategy")
+        @Description("Notification overload that delivered the packet")
+        String strategy;
+
+        @Label("Targeted")
+        @Description("Sent to a single player rather than the universe")
+        boolean targeted;
+    }
+
+    @Name("com.bumenfeld.LocalizationReloaded")
+    @Label("Localization Reloaded")
+    @Description("Loading the default language and resetting the per-player bundle cache")
+    @Category(CATEGORY)
+    static final class LocalizationReloaded extends Event {
+        @Label("Language")
+        String language;
+
+        @Label("Locale Cache Size")
+        int localeCacheSize;
+    }
+}
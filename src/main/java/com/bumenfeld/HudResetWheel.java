@@ -0,0 +1,227 @@
+package com.bumenfeld;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Two-level timing wheel that hides death HUDs once their display time is over.
+ *
+ * <p>Every visible HUD owns one {@link Lease} that is linked into a wheel slot. Showing the HUD again while it is
+ * still visible only moves the lease to another slot, so bursts of deaths do not allocate timers. Expired leases
+ * of one tick are grouped per world and handed to the flush target as one batch.
+ */
+final class HudResetWheel {
+    private static final Logger LOGGER = Logger.getLogger(HudResetWheel.class.getName());
+    static final long TICK_MILLIS = 250L;
+    private static final int INNER_BITS = 8;
+    private static final int INNER_SLOTS = 1 << INNER_BITS;
+    private static final int INNER_MASK = INNER_SLOTS - 1;
+    private static final int OUTER_SLOTS = 64;
+    private static final int OUTER_MASK = OUTER_SLOTS - 1;
+    private static final long MAX_DELAY_TICKS = (long) INNER_SLOTS * OUTER_SLOTS - 1;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-hud-reset");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Lease[] inner = new Lease[INNER_SLOTS];
+    private final Lease[] outer = new Lease[OUTER_SLOTS];
+    private final Map<UUID, Lease> leases = new HashMap<>();
+    private final Object lock = new Object();
+    private final BiConsumer<AnnouncementServer.GameWorld, List<Expired>> flushTarget;
+    private long currentTick;
+
+    HudResetWheel(BiConsumer<AnnouncementServer.GameWorld, List<Expired>> flushTarget) {
+        this.flushTarget = Objects.requireNonNull(flushTarget, "flushTarget");
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void schedule(UUID playerUuid, AnnouncementServer.HudHolder holder, AnnouncementServer.GameWorld world,
+                  long delayMillis) {
+        if (playerUuid == null || holder == null || world == null) {
+            return;
+        }
+
+        long delayTicks = Math.max(1L, Math.min(MAX_DELAY_TICKS, (delayMillis + TICK_MILLIS - 1) / TICK_MILLIS));
+        synchronized (lock) {
+            Lease lease = leases.get(playerUuid);
+            if (lease == null) {
+                lease = new Lease(playerUuid);
+                leases.put(playerUuid, lease);
+            } else {
+                unlink(lease);
+            }
+            lease.holder = holder;
+            lease.world = world;
+            lease.deadline = currentTick + delayTicks;
+            insert(lease);
+        }
+    }
+
+    /**
+     * Drops the pending reset of the player with {@code playerUuid} so a disconnected player's entity and world are
+     * released now rather than when the HUD would have expired.
+     */
+    void cancel(UUID playerUuid) {
+        synchronized (lock) {
+            Lease lease = leases.remove(playerUuid);
+            if (lease != null) {
+                unlink(lease);
+            }
+        }
+    }
+
+    /**
+     * Drops the pending reset of the player with {@code playerUuid} if it is held in the world named
+     * {@code worldName}, e.g. when the entity leaves that world.
+     */
+    void cancel(UUID playerUuid, String worldName) {
+        synchronized (lock) {
+            Lease lease = leases.get(playerUuid);
+            if (lease != null && lease.world.name().equals(worldName)) {
+                unlink(lease);
+                leases.remove(playerUuid);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the player with {@code playerUuid} has a pending reset, i.e. its HUD was shown again after any
+     * expiry that is still being flushed.
+     */
+    boolean isScheduled(UUID playerUuid) {
+        synchronized (lock) {
+            return leases.containsKey(playerUuid);
+        }
+    }
+
+    void shutdown() {
+        ticker.shutdownNow();
+        synchronized (lock) {
+            Arrays.fill(inner, null);
+            Arrays.fill(outer, null);
+            leases.clear();
+        }
+    }
+
+    private void tick() {
+        Map<AnnouncementServer.GameWorld, List<Expired>> expired = null;
+        synchronized (lock) {
+            long tick = ++currentTick;
+            if ((tick & INNER_MASK) == 0) {
+                int outerSlot = (int) ((tick >>> INNER_BITS) & OUTER_MASK);
+                Lease cascading = outer[outerSlot];
+                outer[outerSlot] = null;
+                while (cascading != null) {
+                    Lease next = cascading.next;
+                    cascading.prev = null;
+                    cascading.next = null;
+                    cascading.bucket = null;
+                    insert(cascading);
+                    cascading = next;
+                }
+            }
+
+            int innerSlot = (int) (tick & INNER_MASK);
+            Lease lease = inner[innerSlot];
+            inner[innerSlot] = null;
+            while (lease != null) {
+                Lease next = lease.next;
+                lease.prev = null;
+                lease.next = null;
+                lease.bucket = null;
+                if (lease.deadline <= tick) {
+                    leases.remove(lease.playerUuid);
+                    if (expired == null) {
+                        expired = new HashMap<>();
+                    }
+                    expired.computeIfAbsent(lease.world, ignored -> new ArrayList<>())
+                        .add(new Expired(lease.playerUuid, lease.holder));
+                } else {
+                    insert(lease);
+                }
+                lease = next;
+            }
+        }
+
+        if (expired == null) {
+            return;
+        }
+        for (Map.Entry<AnnouncementServer.GameWorld, List<Expired>> entry : expired.entrySet()) {
+            try {
+                flushTarget.accept(entry.getKey(), entry.getValue());
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Failed to hide expired death HUDs", ex);
+            }
+        }
+    }
+
+    private void insert(Lease lease) {
+        long delta = lease.deadline - currentTick;
+        Lease[] bucket;
+        int slot;
+        if (delta < INNER_SLOTS) {
+            bucket = inner;
+            slot = (int) (lease.deadline & INNER_MASK);
+        } else {
+            bucket = outer;
+            slot = (int) ((lease.deadline >>> INNER_BITS) & OUTER_MASK);
+        }
+        Lease head = bucket[slot];
+        lease.next = head;
+        lease.prev = null;
+        if (head != null) {
+            head.prev = lease;
+        }
+        bucket[slot] = lease;
+        lease.bucket = bucket;
+        lease.slot = slot;
+    }
+
+    private static void unlink(Lease lease) {
+        if (lease.bucket == null) {
+            return;
+        }
+        if (lease.prev != null) {
+            lease.prev.next = lease.next;
+        } else {
+            lease.bucket[lease.slot] = lease.next;
+        }
+        if (lease.next != null) {
+            lease.next.prev = lease.prev;
+        }
+        lease.prev = null;
+        lease.next = null;
+        lease.bucket = null;
+    }
+
+    record Expired(UUID playerUuid, AnnouncementServer.HudHolder holder) {
+    }
+
+    private static final class Lease {
+        private final UUID playerUuid;
+        private AnnouncementServer.HudHolder holder;
+        private AnnouncementServer.GameWorld world;
+        private long deadline;
+        private Lease prev;
+        private Lease next;
+        private Lease[] bucket;
+        private int slot;
+
+        private Lease(UUID playerUuid) {
+            this.playerUuid = playerUuid;
+        }
+    }
+}
@@ -0,0 +1,718 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.Message;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Headless capacity test for the announcement path.
+ *
+ * <p>Builds a real {@link DeathAnnouncementSystem} on an in-process {@link AnnouncementServer}: each simulated world
+ * is a single thread with a task queue, like a server world, and the notification, chat and HUD sinks only count
+ * what they receive. Deaths are raised on the victim's world thread and enter the system where the ECS system hands
+ * them over, so journaling, statistics, the pipeline, per-world settings, rate limits, delivery scopes, HUD patching
+ * and resets, the death log and the stage metrics all run as they do on a server. The Hytale server jar must be on
+ * the class path for the message and UI types.
+ */
+final class LoadSimulator {
+    private static final long TICK_MILLIS = 10L;
+    private static final long SAMPLE_MILLIS = 50L;
+    private static final double AREA = 1024.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final Options options;
+    private final List<SimulatedWorld> worlds = new ArrayList<>();
+    private final Map<String, SimulatedWorld> worldsByName = new HashMap<>();
+    private final List<SimulatedPlayer> players = new ArrayList<>();
+    private final Map<UUID, SimulatedPlayer> playersByUuid = new HashMap<>();
+    private final String[] causePicks;
+    private final LatencyHistogram worldWaits = new LatencyHistogram();
+    private final Map<DeathRateLimiter.Channel, LongAdder> deliveries = new LinkedHashMap<>();
+    private final LongAdder hudMounts = new LongAdder();
+    private final LongAdder hudPatches = new LongAdder();
+    private final LongAdder hudHides = new LongAdder();
+    private final AtomicLong deaths = new AtomicLong();
+    private final AtomicInteger maxWorldQueue = new AtomicInteger();
+
+    private PlayerPreferenceStore preferences;
+    private DeathJournal journal;
+    private DeathStatistics statistics;
+    private DeathLog deathLog;
+    private AnnouncementMetrics metrics;
+    private DeathAnnouncementSystem system;
+
+    LoadSimulator(Options options) {
+        this.options = options;
+        this.causePicks = expandWeights(options.causeWeights());
+        for (DeathRateLimiter.Channel channel : DeathRateLimiter.Channel.values()) {
+            deliveries.put(channel, new LongAdder());
+        }
+    }
+
+    void run(PrintStream out) throws IOException, InterruptedException {
+        Path dataDirectory = Files.createTempDirectory("death-announcer-simulation");
+        try {
+            DeathAnnouncerConfig config = setUp(dataDirectory);
+            DeliveryScope.Settings delivery = config.getDeliverySettings();
+            out.printf(Locale.ROOT, "Simulating %d players in %d worlds, %.1f deaths/s for %d s "
+                    + "(notification %s, hud %s, chat %s scope)%n", options.players(), options.worlds(),
+                options.deathsPerSecond(), options.durationSeconds(), delivery.notification().configName(),
+                delivery.hud().configName(), delivery.chat().configName());
+            Measurement measurement = drive();
+            drain();
+            report(out, measurement);
+        } finally {
+            tearDown();
+            deleteRecursively(dataDirectory);
+        }
+    }
+
+    private DeathAnnouncerConfig setUp(Path dataDirectory) throws IOException {
+        DeathAnnouncerConfig config = options.overrides()
+            .apply(DeathAnnouncerConfig.read(options.configDirectory() == null ? dataDirectory
+                : options.configDirectory()))
+            // The report reads the stage metrics; keep them in memory only.
+            .withMetricsEnabled(true)
+            .withMetricsSnapshotSeconds(0L);
+        LocalizationManager localizationManager = new LocalizationManager(dataDirectory);
+        LocalizationBundle defaultBundle = localizationManager.load(config.getLanguage());
+        LocaleBundleCache localeBundles = new LocaleBundleCache(localizationManager, defaultBundle,
+            config.getLocaleCacheSize());
+        preferences = PlayerPreferenceStore.load(dataDirectory);
+        journal = DeathJournal.open(dataDirectory, config.getJournalSettings());
+        statistics = DeathStatistics.load(dataDirectory);
+        deathLog = DeathLog.open(dataDirectory, config.getDeathLogVerbosity());
+        metrics = new AnnouncementMetrics(dataDirectory, config.getMetricsSettings());
+
+        for (int i = 0; i < options.worlds(); i++) {
+            SimulatedWorld world = new SimulatedWorld("world-" + i);
+            worlds.add(world);
+            worldsByName.put(world.name(), world);
+        }
+        List<String> languages = options.languages().isEmpty() ? List.of(config.getLanguage()) : options.languages();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < options.players(); i++) {
+            SimulatedWorld world = worlds.get(i % worlds.size());
+            SimulatedPlayer player = new SimulatedPlayer(UUID.randomUUID(), "Player" + i,
+                languages.get(i % languages.size()), world,
+                new Vector3d(random.nextDouble(-AREA, AREA), 64.0, random.nextDouble(-AREA, AREA)));
+            world.players.add(player);
+            players.add(player);
+            playersByUuid.put(player.uuid(), player);
+            if (i < Math.round(options.players() * options.mutedFraction())) {
+                preferences.setMuted(player.uuid(), DeathRateLimiter.Channel.CHAT, true);
+            }
+        }
+
+        system = new DeathAnnouncementSystem(localeBundles, config, DeathHudPayload.DEFAULT_UI_PATH,
+            new SimulatedServer(), preferences, journal, statistics, deathLog, metrics);
+        return config;
+    }
+
+    private Measurement drive() throws InterruptedException {
+        com.sun.management.ThreadMXBean threads =
+            ManagementFactory.getPlatformMXBean(com.sun.management.ThreadMXBean.class);
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long[] gcBefore = gcTotals();
+        long start = System.nanoTime();
+
+        ScheduledExecutorService driver = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "death-simulator-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        double[] carry = {0.0};
+        long[] lastTick = {start};
+        driver.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            carry[0] += options.deathsPerSecond() * (now - lastTick[0]) / 1_000_000_000.0;
+            lastTick[0] = now;
+            while (carry[0] >= 1.0) {
+                carry[0] -= 1.0;
+                raiseDeath();
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        driver.scheduleAtFixedRate(() -> {
+            for (SimulatedWorld world : worlds) {
+                maxWorldQueue.accumulateAndGet(world.executor.getQueue().size(), Math::max);
+            }
+        }, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.durationSeconds()));
+        driver.shutdownNow();
+        driver.awaitTermination(1L, TimeUnit.SECONDS);
+
+        long elapsed = System.nanoTime() - start;
+        long[] gcAfter = gcTotals();
+        return new Measurement(elapsed, threads.getTotalThreadAllocatedBytes() - allocatedBefore,
+            gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+    }
+
+    private void raiseDeath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SimulatedPlayer victim = players.get(random.nextInt(players.size()));
+        String cause = causePicks[random.nextInt(causePicks.length)];
+        // Stamped here, so end-to-end latency includes the wait for the victim's world thread.
+        long raisedNanos = metrics.start();
+        victim.world.execute(() -> {
+            Vector3d position = victim.position();
+            deaths.incrementAndGet();
+            system.recordDeath(new DeathRecord(System.currentTimeMillis(), victim.uuid(), victim.username(), cause,
+                cause, victim.world.name(), position.getX(), position.getY(), position.getZ(), raisedNanos));
+        });
+    }
+
+    /**
+     * Waits until every queued death and world task has been handled and the last HUD window has flushed.
+     */
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(DeathHudCoalescer.MAX_WINDOW_MILLIS);
+            boolean idle = system.getPipelineStats().depth() == 0;
+            for (SimulatedWorld world : worlds) {
+                idle &= world.executor.getQueue().isEmpty() && world.executor.getActiveCount() == 0;
+            }
+            if (idle) {
+                return;
+            }
+        }
+    }
+
+    private void report(PrintStream out, Measurement measurement) {
+        double seconds = measurement.elapsedNanos() / 1_000_000_000.0;
+        DeathAnnouncementPipeline.Stats pipelineStats = system.getPipelineStats();
+        AnnouncementMetrics.Snapshot snapshot = metrics.snapshot();
+        Map<AnnouncementMetrics.Counter, Long> counters = snapshot.counters();
+        out.printf(Locale.ROOT, "Deaths: %d raised (%.1f/s), %d announced, %d dropped (%d summarized), "
+                + "%d channel sends rate-limited, %d summaries, %d muted skips%n", deaths.get(),
+            deaths.get() / seconds, pipelineStats.processed(), pipelineStats.dropped(), pipelineStats.summarized(),
+            counters.get(AnnouncementMetrics.Counter.RATE_LIMITED), counters.get(AnnouncementMetrics.Counter.SUMMARIES),
+            counters.get(AnnouncementMetrics.Counter.MUTED_SKIPS));
+        out.println("End-to-end latency from a death being raised to each delivery:");
+        for (DeathRateLimiter.Channel channel : DeathRateLimiter.Channel.values()) {
+            long delivered = deliveries.get(channel).sum();
+            LatencyHistogram histogram = metrics.histogram(deliveryStage(channel));
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-12s %9d deliveries (%10.1f/s)",
+                channel.name().toLowerCase(Locale.ROOT), delivered, delivered / seconds));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format(Locale.ROOT, "  p%s %s", formatPercentile(percentile),
+                    formatMillis(histogram.percentile(percentile))));
+            }
+            line.append("  max ").append(formatMillis(histogram.max()));
+            out.println(line);
+        }
+        out.printf(Locale.ROOT, "HUDs: %d mounted, %d patched, %d hidden%n", hudMounts.sum(), hudPatches.sum(),
+            hudHides.sum());
+        out.println("Stage                    count        p50        p99        max");
+        for (AnnouncementMetrics.StageSummary stage : snapshot.stages()) {
+            if (stage.count() == 0L) {
+                continue;
+            }
+            out.printf(Locale.ROOT, "%-22s %7d %10s %10s %10s%n", stage.stage().configName(), stage.count(),
+                formatMillis(stage.p50Nanos()), formatMillis(stage.p99Nanos()), formatMillis(stage.maxNanos()));
+        }
+        StringBuilder waits = new StringBuilder("World task wait:");
+        for (double percentile : PERCENTILES) {
+            waits.append(String.format(Locale.ROOT, "  p%s %s", formatPercentile(percentile),
+                formatMillis(worldWaits.percentile(percentile))));
+        }
+        waits.append("  max ").append(formatMillis(worldWaits.max()));
+        out.println(waits);
+        out.printf(Locale.ROOT, "Queues: pipeline max %d/%d, world max %d%n", pipelineStats.maxDepth(),
+            pipelineStats.capacity(), maxWorldQueue.get());
+        DeathJournal.Stats journalStats = system.getJournalStats();
+        if (journalStats.enabled()) {
+            out.printf(Locale.ROOT, "Journal: %d/%d written, %d dropped, %d syncs%n", journalStats.written(),
+                journalStats.appended(), journalStats.dropped(), journalStats.syncs());
+        }
+        DeathLog.Stats deathLogStats = system.getDeathLogStats();
+        if (deathLogStats.verbosity() != DeathLog.Verbosity.OFF) {
+            out.printf(Locale.ROOT, "Death log: %d written, %d dropped%n", deathLogStats.written(),
+                deathLogStats.dropped());
+        }
+        out.printf(Locale.ROOT, "Heap: %.1f MB allocated (%.1f MB/s), %d collections, %d ms in GC%n",
+            measurement.allocatedBytes() / 1048576.0, measurement.allocatedBytes() / 1048576.0 / seconds,
+            measurement.gcCount(), measurement.gcMillis());
+    }
+
+    private void tearDown() {
+        if (system != null) {
+            system.shutdown();
+        }
+        for (SimulatedWorld world : worlds) {
+            world.executor.shutdownNow();
+        }
+        if (preferences != null) {
+            preferences.shutdown();
+        }
+        if (journal != null) {
+            journal.shutdown();
+        }
+        if (statistics != null) {
+            statistics.shutdown();
+        }
+        if (deathLog != null) {
+            deathLog.shutdown();
+        }
+        if (metrics != null) {
+            metrics.shutdown();
+        }
+    }
+
+    private static long[] gcTotals() {
+        long count = 0L;
+        long millis = 0L;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0L, collector.getCollectionCount());
+            millis += Math.max(0L, collector.getCollectionTime());
+        }
+        return new long[] {count, millis};
+    }
+
+    private static AnnouncementMetrics.Stage deliveryStage(DeathRateLimiter.Channel channel) {
+        return switch (channel) {
+            case NOTIFICATION -> AnnouncementMetrics.Stage.NOTIFICATION_DELIVERY;
+            case HUD -> AnnouncementMetrics.Stage.HUD_DELIVERY;
+            case CHAT -> AnnouncementMetrics.Stage.CHAT_DELIVERY;
+        };
+    }
+
+    private static String[] expandWeights(Map<String, Integer> weights) {
+        List<String> picks = new ArrayList<>();
+        weights.forEach((cause, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                picks.add(cause);
+            }
+        });
+        return picks.toArray(String[]::new);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    static String usage() {
+        return String.join(System.lineSeparator(),
+            "Usage: java -cp <Hytale server jar>:<plugin jar> com.bumenfeld.Application [--option=value ...]",
+            "  --players=500              simulated players, spread evenly over the worlds",
+            "  --worlds=5                 simulated worlds named world-0, world-1, ..., one thread each",
+            "  --deaths-per-second=50     death rate across all worlds",
+            "  --duration=30              seconds to run",
+            "  --causes=fall:3,projectile:2,lava:1,...  cause ids with relative weights",
+            "  --languages=en,de          client languages assigned round-robin; the first is the server default",
+            "  --muted-fraction=0.0       share of players that muted chat announcements",
+            "  --config=<directory>       read config.yml, including world-overrides, from this directory",
+            "Settings below default to that config.yml, or to the shipped defaults, and override it when given:",
+            "  --scope=universe           delivery scope of every channel: universe, world or radius",
+            "  --radius=256               --hud-coalesce-millis=50   --hud-summary-threshold=3",
+            "  --notification-rate-limit=2  --hud-rate-limit=5  --chat-rate-limit=3  (per world and second, 0 = off)",
+            "  --rate-limit-burst=10      --rate-limit-summary-seconds=5",
+            "  --queue-capacity=1024      --overflow-policy=drop-newest",
+            "  --journal=true             --death-log=deaths         (written to a temporary directory)");
+    }
+
+    /**
+     * Simulation parameters. {@code overrides} applies the settings given on the command line to the configuration
+     * read from {@code configDirectory}, or to the defaults when it is {@code null}.
+     */
+    record Options(int players,
+                   int worlds,
+                   double deathsPerSecond,
+                   long durationSeconds,
+                   Map<String, Integer> causeWeights,
+                   List<String> languages,
+                   double mutedFraction,
+                   Path configDirectory,
+                   UnaryOperator<DeathAnnouncerConfig> overrides) {
+
+        /**
+         * Parses {@code --name=value} or {@code --name value} arguments; returns {@code null} for {@code --help}.
+         */
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--help") || arg.equals("-h")) {
+                    return null;
+                }
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                int equals = arg.indexOf('=');
+                if (equals > 0) {
+                    values.put(arg.substring(2, equals), arg.substring(equals + 1));
+                } else if (i + 1 < args.length) {
+                    values.put(arg.substring(2), args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+            }
+
+            int players = (int) readLong(values, "players", 500L, 1L, 1_000_000L);
+            int worlds = (int) readLong(values, "worlds", 5L, 1L, 10_000L);
+            double deathsPerSecond = readDouble(values.remove("deaths-per-second"), 50.0);
+            long duration = readLong(values, "duration", 30L, 1L, 86_400L);
+            Map<String, Integer> causes = parseCauses(values.remove("causes"));
+            String languageList = values.remove("languages");
+            List<String> languages = languageList == null ? List.of() : Stream.of(languageList.split(","))
+                .map(String::trim)
+                .filter(language -> !language.isEmpty())
+                .toList();
+            if (languageList != null && languages.isEmpty()) {
+                throw new IllegalArgumentException("--languages needs at least one language");
+            }
+            double mutedFraction = Math.max(0.0, Math.min(1.0, readDouble(values.remove("muted-fraction"), 0.0)));
+            String configDirectory = values.remove("config");
+
+            List<UnaryOperator<DeathAnnouncerConfig>> overrides = new ArrayList<>();
+            if (!languages.isEmpty()) {
+                overrides.add(config -> config.withLanguage(languages.get(0)));
+            }
+            String scopeValue = values.remove("scope");
+            if (scopeValue != null) {
+                DeliveryScope scope = DeliveryScope.parse(scopeValue);
+                if (scope == null) {
+                    throw new IllegalArgumentException("--scope must be universe, world or radius");
+                }
+                overrides.add(config -> config.withNotificationScope(scope).withHudScope(scope).withChatScope(scope));
+            }
+            Long radius = readOptionalLong(values, "radius", 1L, DeliveryScope.MAX_RADIUS);
+            if (radius != null) {
+                overrides.add(config -> config.withScopeRadius(radius));
+            }
+            Long coalesceMillis = readOptionalLong(values, "hud-coalesce-millis", 0L,
+                DeathHudCoalescer.MAX_WINDOW_MILLIS);
+            if (coalesceMillis != null) {
+                overrides.add(config -> config.withHudCoalesceMillis(coalesceMillis));
+            }
+            Long summaryThreshold = readOptionalLong(values, "hud-summary-threshold", 2L, Integer.MAX_VALUE);
+            if (summaryThreshold != null) {
+                overrides.add(config -> config.withHudSummaryThreshold(summaryThreshold.intValue()));
+            }
+            Long notificationRate = readOptionalLong(values, "notification-rate-limit", 0L, Long.MAX_VALUE);
+            if (notificationRate != null) {
+                overrides.add(config -> config.withNotificationRateLimit(notificationRate));
+            }
+            Long hudRate = readOptionalLong(values, "hud-rate-limit", 0L, Long.MAX_VALUE);
+            if (hudRate != null) {
+                overrides.add(config -> config.withHudRateLimit(hudRate));
+            }
+            Long chatRate = readOptionalLong(values, "chat-rate-limit", 0L, Long.MAX_VALUE);
+            if (chatRate != null) {
+                overrides.add(config -> config.withChatRateLimit(chatRate));
+            }
+            Long burst = readOptionalLong(values, "rate-limit-burst", 1L, Long.MAX_VALUE);
+            if (burst != null) {
+                overrides.add(config -> config.withRateLimitBurst(burst));
+            }
+            Long summarySeconds = readOptionalLong(values, "rate-limit-summary-seconds", 1L, Long.MAX_VALUE);
+            if (summarySeconds != null) {
+                overrides.add(config -> config.withRateLimitSummarySeconds(summarySeconds));
+            }
+            Long queueCapacity = readOptionalLong(values, "queue-capacity", 16L, 1L << 20);
+            if (queueCapacity != null) {
+                overrides.add(config -> config.withPipelineQueueCapacity(queueCapacity.intValue()));
+            }
+            String policyValue = values.remove("overflow-policy");
+            if (policyValue != null) {
+                DeathAnnouncementPipeline.OverflowPolicy policy =
+                    DeathAnnouncementPipeline.OverflowPolicy.parse(policyValue);
+                if (policy == null) {
+                    throw new IllegalArgumentException("--overflow-policy must be drop-newest or summarize");
+                }
+                overrides.add(config -> config.withPipelineOverflowPolicy(policy));
+            }
+            String journal = values.remove("journal");
+            if (journal != null) {
+                boolean enabled = !"false".equalsIgnoreCase(journal.trim());
+                overrides.add(config -> config.withJournalEnabled(enabled));
+            }
+            String deathLog = values.remove("death-log");
+            if (deathLog != null) {
+                DeathLog.Verbosity verbosity = DeathLog.Verbosity.parse(deathLog);
+                if (verbosity == null) {
+                    throw new IllegalArgumentException("--death-log must be off, deaths or detailed");
+                }
+                overrides.add(config -> config.withDeathLogVerbosity(verbosity));
+            }
+
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown option: --" + values.keySet().iterator().next());
+            }
+            if (deathsPerSecond <= 0.0) {
+                throw new IllegalArgumentException("--deaths-per-second must be positive");
+            }
+            List<UnaryOperator<DeathAnnouncerConfig>> edits = List.copyOf(overrides);
+            UnaryOperator<DeathAnnouncerConfig> combined = config -> {
+                for (UnaryOperator<DeathAnnouncerConfig> edit : edits) {
+                    config = edit.apply(config);
+                }
+                return config;
+            };
+            return new Options(players, worlds, deathsPerSecond, duration, causes, languages, mutedFraction,
+                configDirectory == null ? null : Path.of(configDirectory), combined);
+        }
+
+        private static Map<String, Integer> parseCauses(String value) {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            if (value == null) {
+                weights.put("fall", 4);
+                weights.put("physical", 3);
+                weights.put("projectile", 2);
+                weights.put("lava", 1);
+                weights.put("drowning", 1);
+                weights.put("out_of_world", 1);
+                return weights;
+            }
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split(":", 2);
+                int weight = parts.length == 2 ? (int) parseLong(parts[1], "--causes weight") : 1;
+                if (parts[0].isBlank() || weight < 1) {
+                    throw new IllegalArgumentException("Invalid --causes entry: " + entry);
+                }
+                weights.merge(parts[0].trim(), weight, Integer::sum);
+            }
+            return weights;
+        }
+
+        private static long readLong(Map<String, String> values, String name, long fallback, long min, long max) {
+            Long parsed = readOptionalLong(values, name, min, max);
+            return parsed == null ? fallback : parsed;
+        }
+
+        private static Long readOptionalLong(Map<String, String> values, String name, long min, long max) {
+            String value = values.remove(name);
+            if (value == null) {
+                return null;
+            }
+            long parsed = parseLong(value, "--" + name);
+            if (parsed < min || parsed > max) {
+                throw new IllegalArgumentException("--" + name + " must be between " + min + " and " + max);
+            }
+            return parsed;
+        }
+
+        private static long parseLong(String value, String name) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(name + " expects a whole number, got '" + value + "'");
+            }
+        }
+
+        private static double readDouble(String value, double fallback) {
+            if (value == null) {
+                return fallback;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Expected a number, got '" + value + "'");
+            }
+        }
+    }
+
+    private record Measurement(long elapsedNanos, long allocatedBytes, long gcCount, long gcMillis) {
+    }
+
+    /**
+     * The in-process universe; a universe-wide broadcast reaches every simulated player.
+     */
+    private final class SimulatedServer implements AnnouncementServer {
+        @Override
+        public List<SimulatedWorld> worlds() {
+            return worlds;
+        }
+
+        @Override
+        public SimulatedWorld world(String name) {
+            return worldsByName.get(name);
+        }
+
+        @Override
+        public SimulatedPlayer player(UUID uuid) {
+            return playersByUuid.get(uuid);
+        }
+
+        @Override
+        public void broadcastChat(Message message) {
+            deliveries.get(DeathRateLimiter.Channel.CHAT).add(players.size());
+        }
+
+        @Override
+        public void broadcastNotification(Message title, Message subtitle, String iconPath) {
+            deliveries.get(DeathRateLimiter.Channel.NOTIFICATION).add(players.size());
+        }
+
+        @Override
+        public boolean supportsPlayerNotifications() {
+            return true;
+        }
+    }
+
+    /**
+     * A world thread with its own task queue; the time each task waits in the queue is recorded.
+     */
+    private final class SimulatedWorld implements AnnouncementServer.GameWorld {
+        private final String name;
+        private final List<SimulatedPlayer> players = new ArrayList<>();
+        private final ThreadPoolExecutor executor;
+
+        private SimulatedWorld(String name) {
+            this.name = name;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "simulated-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            long queuedAt = System.nanoTime();
+            executor.execute(() -> {
+                worldWaits.record(System.nanoTime() - queuedAt);
+                task.run();
+            });
+        }
+
+        @Override
+        public List<SimulatedPlayer> players() {
+            return Collections.unmodifiableList(players);
+        }
+    }
+
+    /**
+     * A player standing still in its world; its entity never changes, so it keeps one HUD holder.
+     */
+    private final class SimulatedPlayer implements AnnouncementServer.Recipient, AnnouncementServer.HudHolder {
+        private final UUID uuid;
+        private final String username;
+        private final String language;
+        private final SimulatedWorld world;
+        private final Vector3d position;
+
+        private SimulatedPlayer(UUID uuid, String username, String language, SimulatedWorld world, Vector3d position) {
+            this.uuid = uuid;
+            this.username = username;
+            this.language = language;
+            this.world = world;
+            this.position = position;
+        }
+
+        @Override
+        public UUID uuid() {
+            return uuid;
+        }
+
+        @Override
+        public String username() {
+            return username;
+        }
+
+        @Override
+        public String language() {
+            return language;
+        }
+
+        @Override
+        public Vector3d position() {
+            return position;
+        }
+
+        @Override
+        public void sendMessage(Message message) {
+            deliveries.get(DeathRateLimiter.Channel.CHAT).increment();
+        }
+
+        @Override
+        public void sendNotification(Message title, Message subtitle, String iconPath) {
+            deliveries.get(DeathRateLimiter.Channel.NOTIFICATION).increment();
+        }
+
+        @Override
+        public AnnouncementServer.HudHolder hudHolder() {
+            return this;
+        }
+
+        @Override
+        public AnnouncementServer.DeathHud mount(DeathHudPayload payload) {
+            hudMounts.increment();
+            deliveries.get(DeathRateLimiter.Channel.HUD).increment();
+            return new SimulatedHud(payload);
+        }
+
+        @Override
+        public void hide() {
+            hudHides.increment();
+        }
+    }
+
+    /**
+     * A mounted HUD that builds the same property deltas as {@link DeathNotificationHud#patch}, without sending them.
+     */
+    private final class SimulatedHud implements AnnouncementServer.DeathHud {
+        private DeathHudPayload shown;
+
+        private SimulatedHud(DeathHudPayload shown) {
+            this.shown = shown;
+        }
+
+        @Override
+        public boolean patch(DeathHudPayload next) {
+            if (next != shown) {
+                if (!next.canPatch(shown)) {
+                    return false;
+                }
+                next.deltaFrom(shown);
+                shown = next;
+            }
+            hudPatches.increment();
+            deliveries.get(DeathRateLimiter.Channel.HUD).increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.bumenfeld;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded, least-recently-used cache of {@link LocalizationBundle}s keyed by the language a client reports.
+ *
+ * <p>Lookups never touch the disk: a language seen for the first time is loaded on a background thread while the
+ * caller gets the server default bundle. Languages without a localization file are cached as the default bundle so
+ * they are only looked up once.
+ */
+final class LocaleBundleCache {
+    private static final Logger LOGGER = Logger.getLogger(LocaleBundleCache.class.getName());
+
+    private final LocalizationManager localizationManager;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-locale-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+    private final Map<String, LocalizationBundle> bundles;
+    private final Set<String> pending = new HashSet<>();
+    private volatile LocalizationBundle defaultBundle;
+    private long generation;
+    private int capacity;
+
+    LocaleBundleCache(LocalizationManager localizationManager, LocalizationBundle defaultBundle, int capacity) {
+        this.localizationManager = Objects.requireNonNull(localizationManager, "localizationManager");
+        this.defaultBundle = Objects.requireNonNull(defaultBundle, "defaultBundle");
+        this.capacity = Math.max(1, capacity);
+        this.bundles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalizationBundle> eldest) {
+                return size() > LocaleBundleCache.this.capacity;
+            }
+        };
+    }
+
+    LocalizationBundle defaultBundle() {
+        return defaultBundle;
+    }
+
+    LocalizationBundle bundleFor(String language) {
+        LocalizationBundle fallback = defaultBundle;
+        if (language == null || language.isEmpty()) {
+            return fallback;
+        }
+        long requestGeneration;
+        synchronized (lock) {
+            LocalizationBundle cached = bundles.get(language);
+            if (cached != null) {
+                return cached;
+            }
+            if (!pending.add(language)) {
+                return fallback;
+            }
+            requestGeneration = generation;
+        }
+        loader.execute(() -> load(language, requestGeneration));
+        return fallback;
+    }
+
+    /**
+     * Drops every cached language and switches the fallback and capacity, e.g. after a configuration reload.
+     */
+    void reset(LocalizationBundle newDefault, int newCapacity) {
+        Objects.requireNonNull(newDefault, "newDefault");
+        synchronized (lock) {
+            generation++;
+            capacity = Math.max(1, newCapacity);
+            bundles.clear();
+            pending.clear();
+            defaultBundle = newDefault;
+        }
+    }
+
+    /**
+     * Drops the cached bundles that were loaded from one of {@code languages} (localization file names without
+     * extension), so they are loaded again on their next lookup. Other languages stay cached.
+     */
+    void invalidate(Collection<String> languages) {
+        if (languages.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            boolean removed = bundles.keySet().removeIf(language -> !Collections.disjoint(candidates(language),
+                languages));
+            if (removed || !pending.isEmpty()) {
+                // Loads already running may have read the old file; their results are discarded.
+                generation++;
+                pending.clear();
+            }
+        }
+    }
+
+    int capacity() {
+        synchronized (lock) {
+            return capacity;
+        }
+    }
+
+    int size() {
+        synchronized (lock) {
+            return bundles.size();
+        }
+    }
+
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private void load(String language, long requestGeneration) {
+        LocalizationBundle loaded = null;
+        try {
+            for (String candidate : candidates(language)) {
+                loaded = localizationManager.loadIfPresent(candidate);
+                if (loaded != null) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Failed to load localization for " + language, ex);
+        }
+
+        synchronized (lock) {
+            if (requestGeneration != generation) {
+                return;
+            }
+            pending.remove(language);
+            bundles.put(language, loaded != null ? loaded : defaultBundle);
+        }
+    }
+
+    /**
+     * File names to try for a client language such as {@code de_DE}: the exact code, its normalized form, then the
+     * base language.
+     */
+    private static Set<String> candidates(String language) {
+        Set<String> candidates = new LinkedHashSet<>();
+        String trimmed = language.trim();
+        candidates.add(trimmed);
+        String normalized = trimmed.replace('_', '-').toLowerCase(Locale.ROOT);
+        candidates.add(normalized);
+        int separator = normalized.indexOf('-');
+        if (separator > 0) {
+            candidates.add(normalized.substring(0, separator));
+        }
+        return candidates;
+    }
+}
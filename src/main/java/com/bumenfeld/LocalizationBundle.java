@@ -1,23 +1,97 @@
 package com.bumenfeld;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Localization lines of one language, compiled into {@link AnnouncementTemplate}s when the bundle is created.
+ */
 public final class LocalizationBundle {
-    private final List<String> titles;
-    private final Map<String, List<String>> categories;
+    static final String TITLES_POOL = "titles";
+    static final String SUMMARIES_POOL = "summaries";
+    static final String OVERFLOW_POOL = "overflow";
+    static final Set<String> RESERVED_POOLS = Set.of(TITLES_POOL, SUMMARIES_POOL, OVERFLOW_POOL);
+    private static final List<AnnouncementTemplate> DEFAULT_TITLES =
+        List.of(AnnouncementTemplate.compile("{player} has fallen."));
+    private static final List<AnnouncementTemplate> DEFAULT_SUMMARY_TITLES =
+        List.of(AnnouncementTemplate.compile("{count} players died"));
+    private static final List<AnnouncementTemplate> DEFAULT_OVERFLOW_LINES =
+        List.of(AnnouncementTemplate.compile("{count} players died in {world} recently (mostly {cause})."));
 
-    public LocalizationBundle(List<String> titles, Map<String, List<String>> categories) {
-        this.titles = titles.isEmpty() ? List.of("{player} has fallen.") : List.copyOf(titles);
-        this.categories = Map.copyOf(categories);
+    private final List<AnnouncementTemplate> titles;
+    private final List<AnnouncementTemplate> summaryTitles;
+    private final List<AnnouncementTemplate> overflowLines;
+    private final Map<String, List<AnnouncementTemplate>> categories;
+    private final List<AnnouncementTemplate> genericLines;
+
+    public LocalizationBundle(List<String> titles,
+                              List<String> summaryTitles,
+                              List<String> overflowLines,
+                              Map<String, List<String>> categories) {
+        this(compilePools(titles, summaryTitles, overflowLines, categories));
+    }
+
+    /**
+     * Creates a bundle from pools whose lines are already compiled. The title, summary and overflow pools use the
+     * {@link #RESERVED_POOLS} names; every other pool is a cause category.
+     */
+    static LocalizationBundle ofTemplates(Map<String, List<AnnouncementTemplate>> pools) {
+        return new LocalizationBundle(pools);
+    }
+
+    private LocalizationBundle(Map<String, List<AnnouncementTemplate>> pools) {
+        this.titles = orDefault(pools.get(TITLES_POOL), DEFAULT_TITLES);
+        this.summaryTitles = orDefault(pools.get(SUMMARIES_POOL), DEFAULT_SUMMARY_TITLES);
+        this.overflowLines = orDefault(pools.get(OVERFLOW_POOL), DEFAULT_OVERFLOW_LINES);
+        Map<String, List<AnnouncementTemplate>> compiled = new HashMap<>();
+        pools.forEach((category, lines) -> {
+            if (!RESERVED_POOLS.contains(category)) {
+                compiled.put(category, List.copyOf(lines));
+            }
+        });
+        this.categories = Map.copyOf(compiled);
+        this.genericLines = this.categories.getOrDefault("generic", Collections.emptyList());
     }
 
-    public List<String> getTitles() {
+    public List<AnnouncementTemplate> getTitles() {
         return titles;
     }
 
-    public List<String> getLines(String category) {
-        return categories.getOrDefault(category, categories.getOrDefault("generic", Collections.emptyList()));
+    public List<AnnouncementTemplate> getSummaryTitles() {
+        return summaryTitles;
+    }
+
+    public List<AnnouncementTemplate> getOverflowLines() {
+        return overflowLines;
+    }
+
+    public List<AnnouncementTemplate> getLines(String category) {
+        return categories.getOrDefault(category, genericLines);
+    }
+
+    private static Map<String, List<AnnouncementTemplate>> compilePools(List<String> titles,
+                                                                        List<String> summaryTitles,
+                                                                        List<String> overflowLines,
+                                                                        Map<String, List<String>> categories) {
+        Map<String, List<AnnouncementTemplate>> pools = new HashMap<>();
+        categories.forEach((category, lines) -> pools.put(category, compileAll(lines)));
+        pools.put(TITLES_POOL, compileAll(titles));
+        pools.put(SUMMARIES_POOL, compileAll(summaryTitles));
+        pools.put(OVERFLOW_POOL, compileAll(overflowLines));
+        return pools;
+    }
+
+    private static List<AnnouncementTemplate> orDefault(List<AnnouncementTemplate> lines,
+                                                        List<AnnouncementTemplate> defaults) {
+        return lines == null || lines.isEmpty() ? defaults : List.copyOf(lines);
+    }
+
+    private static List<AnnouncementTemplate> compileAll(List<String> lines) {
+        return lines.stream()
+            .map(AnnouncementTemplate::compile)
+            .toList();
     }
 }
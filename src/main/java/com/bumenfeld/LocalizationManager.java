@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -12,34 +13,88 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Resolves localization bundles. Bundled languages are read from the binary files produced by the
+ * {@code compileLocalization} build task; JSON is only parsed for files in the data directory that an admin edited
+ * or added.
+ */
 public final class LocalizationManager {
+    private static final Logger LOGGER = Logger.getLogger(LocalizationManager.class.getName());
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private final Path pluginDataDirectory;
+    private final Map<String, Optional<CompiledLocalization>> compiledBundles = new ConcurrentHashMap<>();
     private final LocalizationBundle fallbackBundle;
 
     public LocalizationManager(Path pluginDataDirectory) {
         this.pluginDataDirectory = pluginDataDirectory;
-        this.fallbackBundle = loadBundleFromResource("localization/en.json");
+        CompiledLocalization compiled = compiledBundle("en");
+        this.fallbackBundle = compiled != null ? compiled.bundle() : loadBundleFromResource("localization/en.json");
     }
 
     public LocalizationBundle load(String language) {
-        if (language != null) {
-            Path override = pluginDataDirectory.resolve("localization").resolve(language + ".json");
-            if (Files.exists(override)) {
-                LocalizationBundle bundle = loadBundleFromPath(override);
-                if (bundle != null) {
-                    return bundle;
-                }
+        LocalizationBundle bundle = loadIfPresent(language);
+        return bundle != null ? bundle : fallbackBundle;
+    }
+
+    /**
+     * Loads the bundle for {@code language} from the data directory, or returns {@code null} when there is none.
+     */
+    public LocalizationBundle loadIfPresent(String language) {
+        if (language == null || language.isBlank() || language.contains("/") || language.contains("\\")
+            || language.contains("..")) {
+            return null;
+        }
+        CompiledLocalization compiled = compiledBundle(language);
+        Path override = pluginDataDirectory.resolve("localization").resolve(language + ".json");
+        if (!Files.exists(override)) {
+            return compiled == null ? null : compiled.bundle();
+        }
+
+        byte[] source;
+        try {
+            source = Files.readAllBytes(override);
+        } catch (IOException ignored) {
+            return null;
+        }
+        if (compiled != null && compiled.isCompiledFrom(source)) {
+            return compiled.bundle();
+        }
+        try {
+            return loadBundle(new ByteArrayInputStream(source));
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the bundled binary localization for {@code language}, decoded once and kept for later reloads.
+     */
+    private CompiledLocalization compiledBundle(String language) {
+        return compiledBundles.computeIfAbsent(language, this::readCompiledBundle).orElse(null);
+    }
+
+    private Optional<CompiledLocalization> readCompiledBundle(String language) {
+        String resource = "localization/" + language + ".bin";
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(resource)) {
+            if (stream == null) {
+                return Optional.empty();
             }
+            return Optional.of(CompiledLocalization.read(stream));
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable compiled localization " + resource, ex);
+            return Optional.empty();
         }
-        return fallbackBundle;
     }
 
     private LocalizationBundle loadBundleFromResource(String resource) {
         try (InputStream stream = getClass().getClassLoader().getResourceAsStream(resource)) {
             if (stream == null) {
-                return new LocalizationBundle(List.of(), Map.of("generic", List.of("{player} has fallen.")));
+                return new LocalizationBundle(List.of(), List.of(), List.of(), Map.of("generic", List.of("{player} has fallen.")));
             }
             return loadBundle(stream);
         } catch (IOException e) {
@@ -47,23 +102,17 @@ public final class LocalizationManager {
         }
     }
 
-    private LocalizationBundle loadBundleFromPath(Path path) {
-        try (InputStream stream = Files.newInputStream(path)) {
-            return loadBundle(stream);
-        } catch (IOException ignored) {
-            return null;
-        }
-    }
-
     private LocalizationBundle loadBundle(InputStream stream) throws IOException {
         JsonNode root = OBJECT_MAPPER.readTree(stream);
         JsonNode deathAnnouncer = root.path("death-announcer");
         List<String> titles = readList(deathAnnouncer.get("titles"));
+        List<String> summaryTitles = readList(deathAnnouncer.get("summaries"));
+        List<String> overflowLines = readList(deathAnnouncer.get("overflow"));
         Map<String, List<String>> categories = new HashMap<>();
         deathAnnouncer.fields().forEachRemaining(entry -> {
             List<String> lines = readList(entry.getValue());
             if (!lines.isEmpty()) {
-                if (!"titles".equals(entry.getKey())) {
+                if (!LocalizationBundle.RESERVED_POOLS.contains(entry.getKey())) {
                     categories.put(entry.getKey(), List.copyOf(lines));
                 }
             }
@@ -71,7 +120,7 @@ public final class LocalizationManager {
         if (!categories.containsKey("generic")) {
             categories.put("generic", List.of("{player} has fallen."));
         }
-        return new LocalizationBundle(titles, categories);
+        return new LocalizationBundle(titles, summaryTitles, overflowLines, categories);
     }
 
     private List<String> readList(JsonNode node) {
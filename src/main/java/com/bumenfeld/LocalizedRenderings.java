@@ -0,0 +1,38 @@
+package com.bumenfeld;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Renders one announcement at most once per {@link LocalizationBundle} and hands the same result to every spectator
+ * sharing that bundle, so rendering cost follows the number of languages present rather than the number of players.
+ */
+final class LocalizedRenderings<T> {
+    private final Function<LocalizationBundle, T> renderer;
+    private LocalizationBundle[] bundles = new LocalizationBundle[2];
+    private Object[] renderings = new Object[2];
+    private int size;
+
+    LocalizedRenderings(Function<LocalizationBundle, T> renderer) {
+        this.renderer = Objects.requireNonNull(renderer, "renderer");
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized T get(LocalizationBundle bundle) {
+        for (int i = 0; i < size; i++) {
+            if (bundles[i] == bundle) {
+                return (T) renderings[i];
+            }
+        }
+        T rendering = renderer.apply(bundle);
+        if (size == bundles.length) {
+            bundles = Arrays.copyOf(bundles, size * 2);
+            renderings = Arrays.copyOf(renderings, size * 2);
+        }
+        bundles[size] = bundle;
+        renderings[size] = rendering;
+        size++;
+        return rendering;
+    }
+}
@@ -0,0 +1,80 @@
+package com.bumenfeld;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Each slot carries a sequence number: producers claim a position with one CAS and publish the element by
+ * advancing the slot sequence, the consumer frees the slot by moving its sequence one lap ahead. {@link #offer}
+ * never blocks and returns {@code false} once the buffer is full.
+ */
+final class MpscRingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private volatile long consumerIndex;
+
+    MpscRingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, Math.min(1 << 30, requestedCapacity)) - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position = producerIndex.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0L) {
+                if (producerIndex.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = producerIndex.get();
+            } else if (difference < 0L) {
+                return false;
+            } else {
+                position = producerIndex.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the next element; must only be called from the consumer thread.
+     */
+    E poll() {
+        long position = consumerIndex;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + capacity);
+        consumerIndex = position + 1;
+        return element;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (consumerIndex & mask)) != consumerIndex + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0L, Math.min(capacity, producerIndex.get() - consumerIndex));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,162 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.protocol.ItemWithAllMetadata;
+import com.hypixel.hytale.protocol.packets.interface_.NotificationStyle;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.io.PacketHandler;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.util.NotificationUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends death notifications through the best {@link NotificationUtil} overload available on the running server.
+ * The overloads are probed once at plugin setup and bound to {@link MethodHandle}s; when the per-player overload is
+ * missing, scoped notifications fall back to the universe-wide broadcast.
+ */
+final class NotificationDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(NotificationDispatcher.class.getName());
+    private static final String FALLBACK_NOTIFICATION_ITEM = "Weapon_Sword_Mithril";
+    private static final String METHOD_NAME = "sendNotificationToUniverse";
+    private static final String PLAYER_METHOD_NAME = "sendNotification";
+    private static final MethodType PLAYER_TYPE = MethodType.methodType(void.class, PacketHandler.class, Message.class,
+        Message.class, String.class, ItemWithAllMetadata.class, NotificationStyle.class);
+
+    private final Strategy strategy;
+    private final MethodHandle handle;
+    private final MethodHandle playerHandle;
+    private volatile ItemWithAllMetadata fallbackIcon;
+
+    private NotificationDispatcher(Strategy strategy, MethodHandle handle, MethodHandle playerHandle) {
+        this.strategy = strategy;
+        this.handle = handle;
+        this.playerHandle = playerHandle;
+    }
+
+    static NotificationDispatcher probe() {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle playerHandle;
+        try {
+            playerHandle = lookup.findStatic(NotificationUtil.class, PLAYER_METHOD_NAME, PLAYER_TYPE);
+        } catch (ReflectiveOperationException ignored) {
+            playerHandle = null;
+        }
+        for (Strategy strategy : Strategy.values()) {
+            if (strategy.type == null) {
+                continue;
+            }
+            try {
+                MethodHandle handle = lookup.findStatic(NotificationUtil.class, METHOD_NAME, strategy.type);
+                return new NotificationDispatcher(strategy, handle, playerHandle);
+            } catch (ReflectiveOperationException ignored) {
+                // Try the next overload.
+            }
+        }
+        return new NotificationDispatcher(Strategy.ITEM_ICON, null, playerHandle);
+    }
+
+    Strategy getStrategy() {
+        return strategy;
+    }
+
+    boolean supportsPlayerTargets() {
+        return playerHandle != null;
+    }
+
+    void send(Message notificationTitle, Message notificationSubtitle, String iconPath) {
+        FlightRecorderEvents.NotificationDispatched event = new FlightRecorderEvents.NotificationDispatched();
+        event.begin();
+        Strategy used = sendToUniverse(notificationTitle, notificationSubtitle, iconPath);
+        if (event.shouldCommit()) {
+            event.strategy = used.name();
+            event.commit();
+        }
+    }
+
+    private Strategy sendToUniverse(Message notificationTitle, Message notificationSubtitle, String iconPath) {
+        if (handle != null && iconPath != null && !iconPath.isBlank()) {
+            try {
+                switch (strategy) {
+                    case ICON_PATH -> handle.invokeExact(notificationTitle, notificationSubtitle, iconPath,
+                        (ItemWithAllMetadata) null, NotificationStyle.Danger);
+                    case ICON_PATH_TITLE_ONLY -> handle.invokeExact(notificationTitle, iconPath, NotificationStyle.Danger);
+                    default -> throw new IllegalStateException("No icon path overload bound");
+                }
+                return strategy;
+            } catch (Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                LOGGER.log(Level.FINE, "Notification overload failed; using the item icon fallback.", ex);
+            }
+        }
+
+        NotificationUtil.sendNotificationToUniverse(
+            notificationTitle,
+            notificationSubtitle,
+            null,
+            resolveFallbackIcon(),
+            NotificationStyle.Danger
+        );
+        return Strategy.ITEM_ICON;
+    }
+
+    /**
+     * Sends the notification to one player; only valid when {@link #supportsPlayerTargets()} is {@code true}.
+     */
+    void sendTo(PacketHandler packetHandler, Message notificationTitle, Message notificationSubtitle, String iconPath) {
+        if (packetHandler == null) {
+            return;
+        }
+        FlightRecorderEvents.NotificationDispatched event = new FlightRecorderEvents.NotificationDispatched();
+        event.begin();
+        boolean hasIcon = iconPath != null && !iconPath.isBlank();
+        try {
+            playerHandle.invokeExact(packetHandler, notificationTitle, notificationSubtitle, hasIcon ? iconPath : null,
+                hasIcon ? null : resolveFallbackIcon(), NotificationStyle.Danger);
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            LOGGER.log(Level.FINE, "Per-player notification failed.", ex);
+            return;
+        }
+        if (event.shouldCommit()) {
+            event.strategy = hasIcon ? "PLAYER_ICON_PATH" : "PLAYER_ITEM_ICON";
+            event.targeted = true;
+            event.commit();
+        }
+    }
+
+    private ItemWithAllMetadata resolveFallbackIcon() {
+        ItemWithAllMetadata icon = fallbackIcon;
+        if (icon == null) {
+            icon = new ItemStack(FALLBACK_NOTIFICATION_ITEM, 1).toPacket();
+            fallbackIcon = icon;
+        }
+        return icon;
+    }
+
+    enum Strategy {
+        ICON_PATH("icon path overload (Message, Message, String, ItemWithAllMetadata, NotificationStyle)",
+            MethodType.methodType(void.class, Message.class, Message.class, String.class,
+                ItemWithAllMetadata.class, NotificationStyle.class)),
+        ICON_PATH_TITLE_ONLY("title-only icon path overload (Message, String, NotificationStyle)",
+            MethodType.methodType(void.class, Message.class, String.class, NotificationStyle.class)),
+        ITEM_ICON("item icon fallback (" + FALLBACK_NOTIFICATION_ITEM + ")", null);
+
+        private final String description;
+        private final MethodType type;
+
+        Strategy(String description, MethodType type) {
+            this.description = description;
+            this.type = type;
+        }
+
+        String description() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.bumenfeld;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-player announcement opt-outs, one bit per {@link DeathRateLimiter.Channel}.
+ *
+ * <p>The table is an open-addressing hash of UUID halves into parallel primitive arrays, so {@link #isMuted} runs
+ * on the fan-out path without allocating or boxing. Only players with at least one opt-out are stored. Changes are
+ * written to {@code player-preferences.bin} in the background, coalesced into one write per second.
+ */
+final class PlayerPreferenceStore {
+    private static final Logger LOGGER = Logger.getLogger(PlayerPreferenceStore.class.getName());
+    private static final String FILE_NAME = "player-preferences.bin";
+    private static final int MAGIC = 0x44415050;
+    private static final int VERSION = 1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long SAVE_DELAY_MILLIS = 1000L;
+
+    private final Path file;
+    private final StampedLock lock = new StampedLock();
+    private final int[] optOutCounts = new int[DeathRateLimiter.Channel.values().length];
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-preferences");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+    private Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    private PlayerPreferenceStore(Path file) {
+        this.file = file;
+    }
+
+    static PlayerPreferenceStore load(Path dataDirectory) {
+        PlayerPreferenceStore store = new PlayerPreferenceStore(dataDirectory.resolve(FILE_NAME));
+        if (!Files.exists(store.file)) {
+            return store;
+        }
+
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(store.file))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.warning("Ignoring " + FILE_NAME + " with an unknown format.");
+                return store;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                long most = input.readLong();
+                long least = input.readLong();
+                store.put(most, least, input.readByte());
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to read " + FILE_NAME + "; starting with empty preferences.", ex);
+        }
+        return store;
+    }
+
+    /**
+     * Returns whether the player opted out of {@code channel}; safe to call from any thread without allocating.
+     */
+    boolean isMuted(UUID uuid, DeathRateLimiter.Channel channel) {
+        if (uuid == null) {
+            return false;
+        }
+        int bit = 1 << channel.ordinal();
+        long stamp = lock.tryOptimisticRead();
+        int mask = maskOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                mask = maskOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * Returns whether any player opted out of {@code channel}; broadcasts skip the per-player path otherwise.
+     */
+    boolean hasOptOuts(DeathRateLimiter.Channel channel) {
+        long stamp = lock.tryOptimisticRead();
+        int count = optOutCounts[channel.ordinal()];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = optOutCounts[channel.ordinal()];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count > 0;
+    }
+
+    void setMuted(UUID uuid, DeathRateLimiter.Channel channel, boolean muted) {
+        Objects.requireNonNull(uuid, "uuid");
+        int bit = 1 << channel.ordinal();
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            int current = maskOf(most, least);
+            int updated = muted ? current | bit : current & ~bit;
+            if (updated == current) {
+                return;
+            }
+            put(most, least, (byte) updated);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        scheduleSave();
+    }
+
+    void shutdown() {
+        writer.shutdownNow();
+        save();
+    }
+
+    private int maskOf(long most, long least) {
+        Table current = table;
+        int tableMask = current.masks.length - 1;
+        int index = slot(most, least, tableMask);
+        for (int probes = 0; probes <= tableMask; probes++) {
+            byte mask = current.masks[index];
+            if (mask == 0) {
+                return 0;
+            }
+            if (current.mostBits[index] == most && current.leastBits[index] == least) {
+                return mask;
+            }
+            index = (index + 1) & tableMask;
+        }
+        return 0;
+    }
+
+    /**
+     * Inserts, updates or (for a zero mask) removes an entry; callers hold the write lock.
+     */
+    private void put(long most, long least, byte mask) {
+        Table current = table;
+        long[] mostBits = current.mostBits;
+        long[] leastBits = current.leastBits;
+        byte[] masks = current.masks;
+        int tableMask = masks.length - 1;
+        int index = slot(most, least, tableMask);
+        while (masks[index] != 0) {
+            if (mostBits[index] == most && leastBits[index] == least) {
+                adjustCounts(masks[index], -1);
+                if (mask == 0) {
+                    remove(current, index);
+                } else {
+                    masks[index] = mask;
+                    adjustCounts(mask, 1);
+                }
+                return;
+            }
+            index = (index + 1) & tableMask;
+        }
+        if (mask == 0) {
+            return;
+        }
+        if ((size + 1) * 4 > masks.length * 3) {
+            resize(masks.length << 1);
+            put(most, least, mask);
+            return;
+        }
+        mostBits[index] = most;
+        leastBits[index] = least;
+        masks[index] = mask;
+        size++;
+        adjustCounts(mask, 1);
+    }
+
+    /**
+     * Backward-shift deletion keeps probe chains intact without tombstones.
+     */
+    private void remove(Table current, int index) {
+        long[] mostBits = current.mostBits;
+        long[] leastBits = current.leastBits;
+        byte[] masks = current.masks;
+        int tableMask = masks.length - 1;
+        int hole = index;
+        int next = (hole + 1) & tableMask;
+        while (masks[next] != 0) {
+            int home = slot(mostBits[next], leastBits[next], tableMask);
+            if (((next - home) & tableMask) >= ((next - hole) & tableMask)) {
+                mostBits[hole] = mostBits[next];
+                leastBits[hole] = leastBits[next];
+                masks[hole] = masks[next];
+                hole = next;
+            }
+            next = (next + 1) & tableMask;
+        }
+        mostBits[hole] = 0L;
+        leastBits[hole] = 0L;
+        masks[hole] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        Table old = table;
+        table = new Table(capacity);
+        size = 0;
+        Arrays.fill(optOutCounts, 0);
+        for (int i = 0; i < old.masks.length; i++) {
+            if (old.masks[i] != 0) {
+                put(old.mostBits[i], old.leastBits[i], old.masks[i]);
+            }
+        }
+    }
+
+    private void adjustCounts(int mask, int delta) {
+        for (int i = 0; i < optOutCounts.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                optOutCounts[i] += delta;
+            }
+        }
+    }
+
+    private static int slot(long most, long least, int tableMask) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & tableMask;
+    }
+
+    private void scheduleSave() {
+        if (saveScheduled.compareAndSet(false, true)) {
+            writer.schedule(() -> {
+                saveScheduled.set(false);
+                save();
+            }, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void save() {
+        long[] mostCopy;
+        long[] leastCopy;
+        byte[] maskCopy;
+        int count;
+        long stamp = lock.readLock();
+        try {
+            mostCopy = table.mostBits.clone();
+            leastCopy = table.leastBits.clone();
+            maskCopy = table.masks.clone();
+            count = size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(count);
+                for (int i = 0; i < maskCopy.length; i++) {
+                    if (maskCopy[i] != 0) {
+                        output.writeLong(mostCopy[i]);
+                        output.writeLong(leastCopy[i]);
+                        output.writeByte(maskCopy[i]);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to save " + FILE_NAME, ex);
+        }
+    }
+
+    /**
+     * Parallel key and mask arrays; replaced as a whole on resize so optimistic readers see consistent lengths.
+     */
+    private static final class Table {
+        private final long[] mostBits;
+        private final long[] leastBits;
+        private final byte[] masks;
+
+        private Table(int capacity) {
+            this.mostBits = new long[capacity];
+            this.leastBits = new long[capacity];
+            this.masks = new byte[capacity];
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Uniform grid of player positions per world, used to find the players near a death.
+ *
+ * <p>Positions are sampled once per second on each world's own thread and a player only moves between cell lists
+ * when it crosses a cell border. Every grid is read and written exclusively on its world thread, so it needs no
+ * locking; callers must query it from inside {@link AnnouncementServer.GameWorld#execute}.
+ */
+final class PlayerSpatialIndex {
+    private static final int CELL_SHIFT = 6;
+    private static final long REFRESH_MILLIS = 1000L;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "death-notification-spatial-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AnnouncementServer server;
+    private final ConcurrentMap<String, WorldGrid> grids = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    PlayerSpatialIndex(AnnouncementServer server) {
+        this.server = Objects.requireNonNull(server, "server");
+        scheduler.scheduleWithFixedDelay(this::refreshWorlds, REFRESH_MILLIS, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static long cellKey(double x, double z) {
+        return cellKey(cellCoordinate(x), cellCoordinate(z));
+    }
+
+    /**
+     * Enables position sampling; when disabled the grids are dropped and no world work is scheduled.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            grids.clear();
+        }
+    }
+
+    /**
+     * Calls {@code consumer} for every indexed player within {@code radius} blocks of ({@code x}, {@code z}) and
+     * returns how many there were. Must run on the thread of {@code world}.
+     */
+    int forEachNear(AnnouncementServer.GameWorld world,
+                    double x,
+                    double z,
+                    double radius,
+                    Consumer<AnnouncementServer.Recipient> consumer) {
+        return forEachNear(world, new double[] {x, z}, radius, consumer);
+    }
+
+    /**
+     * Like {@link #forEachNear(AnnouncementServer.GameWorld, double, double, double, Consumer)}, for several centres
+     * given as {@code x, z} pairs; a player near more than one of them is visited once.
+     */
+    int forEachNear(AnnouncementServer.GameWorld world,
+                    double[] centres,
+                    double radius,
+                    Consumer<AnnouncementServer.Recipient> consumer) {
+        WorldGrid grid = grids.get(world.name());
+        if (grid == null) {
+            grid = grids.computeIfAbsent(world.name(), ignored -> new WorldGrid());
+            grid.refresh(world);
+        }
+        return grid.forEachNear(centres, radius, consumer);
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+        grids.clear();
+    }
+
+    private void refreshWorlds() {
+        if (!enabled) {
+            return;
+        }
+        Collection<? extends AnnouncementServer.GameWorld> worlds = server.worlds();
+        for (AnnouncementServer.GameWorld world : worlds) {
+            WorldGrid grid = grids.computeIfAbsent(world.name(), ignored -> new WorldGrid());
+            world.execute(() -> grid.refresh(world));
+        }
+        Set<String> loaded = worlds.stream().map(AnnouncementServer.GameWorld::name).collect(Collectors.toSet());
+        grids.keySet().retainAll(loaded);
+    }
+
+    private static int cellCoordinate(double value) {
+        return ((int) Math.floor(value)) >> CELL_SHIFT;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static final class WorldGrid {
+        private final Map<Long, List<Entry>> cells = new HashMap<>();
+        private final Map<UUID, Entry> entries = new HashMap<>();
+        private int generation;
+
+        private void refresh(AnnouncementServer.GameWorld world) {
+            int current = ++generation;
+            for (AnnouncementServer.Recipient recipient : world.players()) {
+                Vector3d position = recipient.position();
+                if (position == null) {
+                    continue;
+                }
+                update(recipient, position.getX(), position.getZ(), current);
+            }
+
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.generation != current) {
+                    removeFromCell(entry);
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void update(AnnouncementServer.Recipient recipient, double x, double z, int current) {
+            long cell = cellKey(x, z);
+            Entry entry = entries.get(recipient.uuid());
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(recipient.uuid(), entry);
+                entry.cell = cell;
+                addToCell(entry);
+            } else if (entry.cell != cell) {
+                removeFromCell(entry);
+                entry.cell = cell;
+                addToCell(entry);
+            }
+            entry.recipient = recipient;
+            entry.x = x;
+            entry.z = z;
+            entry.generation = current;
+        }
+
+        private int forEachNear(double[] centres, double radius, Consumer<AnnouncementServer.Recipient> consumer) {
+            double minCentreX = Double.POSITIVE_INFINITY;
+            double maxCentreX = Double.NEGATIVE_INFINITY;
+            double minCentreZ = Double.POSITIVE_INFINITY;
+            double maxCentreZ = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < centres.length; i += 2) {
+                minCentreX = Math.min(minCentreX, centres[i]);
+                maxCentreX = Math.max(maxCentreX, centres[i]);
+                minCentreZ = Math.min(minCentreZ, centres[i + 1]);
+                maxCentreZ = Math.max(maxCentreZ, centres[i + 1]);
+            }
+            double radiusSquared = radius * radius;
+            int found = 0;
+            int minX = cellCoordinate(minCentreX - radius);
+            int maxX = cellCoordinate(maxCentreX + radius);
+            int minZ = cellCoordinate(minCentreZ - radius);
+            int maxZ = cellCoordinate(maxCentreZ + radius);
+            long boxCells = ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+            if (boxCells > cells.size()) {
+                // Fewer occupied cells than the radius covers: checking each of them is cheaper than the box walk.
+                for (List<Entry> cell : cells.values()) {
+                    found += visit(cell, centres, radiusSquared, consumer);
+                }
+                return found;
+            }
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                    List<Entry> cell = cells.get(cellKey(cellX, cellZ));
+                    if (cell != null) {
+                        found += visit(cell, centres, radiusSquared, consumer);
+                    }
+                }
+            }
+            return found;
+        }
+
+        private static int visit(List<Entry> cell,
+                                 double[] centres,
+                                 double radiusSquared,
+                                 Consumer<AnnouncementServer.Recipient> consumer) {
+            int found = 0;
+            for (int i = 0; i < cell.size(); i++) {
+                Entry entry = cell.get(i);
+                for (int c = 0; c < centres.length; c += 2) {
+                    double dx = entry.x - centres[c];
+                    double dz = entry.z - centres[c + 1];
+                    if (dx * dx + dz * dz <= radiusSquared) {
+                        consumer.accept(entry.recipient);
+                        found++;
+                        break;
+                    }
+                }
+            }
+            return found;
+        }
+
+        private void addToCell(Entry entry) {
+            List<Entry> cell = cells.computeIfAbsent(entry.cell, ignored -> new ArrayList<>());
+            entry.index = cell.size();
+            cell.add(entry);
+        }
+
+        private void removeFromCell(Entry entry) {
+            List<Entry> cell = cells.get(entry.cell);
+            if (cell == null) {
+                return;
+            }
+            int lastIndex = cell.size() - 1;
+            Entry last = cell.remove(lastIndex);
+            if (last != entry) {
+                cell.set(entry.index, last);
+                last.index = entry.index;
+            }
+            if (cell.isEmpty()) {
+                cells.remove(entry.cell);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private AnnouncementServer.Recipient recipient;
+        private long cell;
+        private int index;
+        private double x;
+        private double z;
+        private int generation;
+    }
+}
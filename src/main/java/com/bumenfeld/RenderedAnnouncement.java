@@ -0,0 +1,36 @@
+package com.bumenfeld;
+
+import com.hypixel.hytale.server.core.Message;
+
+import java.awt.Color;
+
+/**
+ * One announcement rendered in one language, with the messages every channel sends already built.
+ */
+record RenderedAnnouncement(String title,
+                            String subtitle,
+                            Message titleMessage,
+                            Message subtitleMessage,
+                            Message chatMessage) {
+
+    /**
+     * Renders a random title and a random line of {@code category} from {@code bundle}.
+     */
+    static RenderedAnnouncement pick(LocalizationBundle bundle, AnnouncementTemplate.Arguments arguments,
+                                     String category) {
+        String title = AnnouncementTemplate.pick(bundle.getTitles()).render(arguments);
+        String subtitle = AnnouncementTemplate.pick(bundle.getLines(category)).render(arguments);
+        return of(title, subtitle);
+    }
+
+    static RenderedAnnouncement of(String title, String subtitle) {
+        String safeTitle = title == null ? "" : title;
+        String safeSubtitle = subtitle == null ? "" : subtitle;
+        Message header = Message
+            .raw("[DEATH] ")
+            .color(new Color(255, 60, 60))
+            .bold(true);
+        Message chat = Message.empty().insertAll(header, Message.raw(safeSubtitle));
+        return new RenderedAnnouncement(safeTitle, safeSubtitle, Message.raw(safeTitle), Message.raw(safeSubtitle), chat);
+    }
+}
@@ -0,0 +1,138 @@
+package com.bumenfeld;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every setting the announcement path reads, as one immutable snapshot. A reload builds a new snapshot and publishes
+ * it with a single reference write, so a death either sees the old configuration or the new one, never a mix; the
+ * announcement path reads the reference once per death and passes the snapshot along.
+ *
+ * <p>Per-world overrides are merged with the server-wide values when the snapshot is built. Each world name is given
+ * a dense slot the first time it is seen, and the slot stays the same across reloads, so the merged settings of a
+ * world are one slot lookup and one array index away. Without overrides, {@link #forWorld} returns the server-wide
+ * values without any lookup.
+ */
+final class RuntimeSettings {
+    private static final ConcurrentMap<String, Integer> SLOTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+    private static final WorldSettings[] NO_OVERRIDES = new WorldSettings[0];
+
+    private final boolean perPlayerLanguage;
+    private final int hudSummaryThreshold;
+    private final DeliveryScope.Settings delivery;
+    private final CauseTable causeTable;
+    private final WorldSettings defaults;
+    private final WorldSettings[] worlds;
+
+    private RuntimeSettings(boolean perPlayerLanguage,
+                            int hudSummaryThreshold,
+                            DeliveryScope.Settings delivery,
+                            CauseTable causeTable,
+                            WorldSettings defaults,
+                            WorldSettings[] worlds) {
+        this.perPlayerLanguage = perPlayerLanguage;
+        this.hudSummaryThreshold = Math.max(2, hudSummaryThreshold);
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
+        this.causeTable = Objects.requireNonNull(causeTable, "causeTable");
+        this.defaults = defaults;
+        this.worlds = worlds;
+    }
+
+    static RuntimeSettings of(DeathAnnouncerConfig config, CauseTable causeTable) {
+        WorldSettings defaults = new WorldSettings(config.areNotificationsEnabled(),
+            config.areHudNotificationsEnabled(), config.areChatNotificationsEnabled(),
+            TimeUnit.SECONDS.toMillis(Math.max(1L, config.getHudDisplaySeconds())));
+        return new RuntimeSettings(config.isPerPlayerLanguage(), config.getHudSummaryThreshold(),
+            config.getDeliverySettings(), causeTable, defaults, resolve(defaults, config.getWorldOverrides()));
+    }
+
+    private static WorldSettings[] resolve(WorldSettings defaults, List<WorldOverride> overrides) {
+        if (overrides.isEmpty()) {
+            return NO_OVERRIDES;
+        }
+        int[] slots = new int[overrides.size()];
+        int length = 0;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = SLOTS.computeIfAbsent(overrides.get(i).world(), ignored -> NEXT_SLOT.getAndIncrement());
+            length = Math.max(length, slots[i] + 1);
+        }
+        WorldSettings[] table = new WorldSettings[length];
+        Arrays.fill(table, defaults);
+        for (int i = 0; i < slots.length; i++) {
+            table[slots[i]] = overrides.get(i).applyTo(table[slots[i]]);
+        }
+        return table;
+    }
+
+    boolean perPlayerLanguage() {
+        return perPlayerLanguage;
+    }
+
+    int hudSummaryThreshold() {
+        return hudSummaryThreshold;
+    }
+
+    DeliveryScope.Settings delivery() {
+        return delivery;
+    }
+
+    CauseTable causeTable() {
+        return causeTable;
+    }
+
+    /**
+     * Server-wide values, used for worlds without overrides.
+     */
+    WorldSettings defaults() {
+        return defaults;
+    }
+
+    WorldSettings forWorld(String worldName) {
+        if (worlds.length == 0 || worldName == null) {
+            return defaults;
+        }
+        Integer slot = SLOTS.get(worldName);
+        return slot == null || slot >= worlds.length ? defaults : worlds[slot];
+    }
+
+    /**
+     * Settings that can differ per world. Channel switches apply to deaths in the world; the display time applies to
+     * HUDs shown to players in the world.
+     */
+    record WorldSettings(boolean notifications, boolean hud, boolean chat, long hudDisplayMillis) {
+        boolean enabled(DeathRateLimiter.Channel channel) {
+            return switch (channel) {
+                case NOTIFICATION -> notifications;
+                case HUD -> hud;
+                case CHAT -> chat;
+            };
+        }
+    }
+
+    /**
+     * One {@code world-overrides} entry from {@code config.yml}; {@code null} values keep the server-wide setting.
+     */
+    record WorldOverride(String world,
+                         Boolean notifications,
+                         Boolean hudNotifications,
+                         Boolean chatNotifications,
+                         Long hudDisplaySeconds) {
+        WorldOverride {
+            Objects.requireNonNull(world, "world");
+        }
+
+        WorldSettings applyTo(WorldSettings base) {
+            return new WorldSettings(notifications == null ? base.notifications() : notifications,
+                hudNotifications == null ? base.hud() : hudNotifications,
+                chatNotifications == null ? base.chat() : chatNotifications,
+                hudDisplaySeconds == null ? base.hudDisplayMillis()
+                    : TimeUnit.SECONDS.toMillis(Math.max(1L, hudDisplaySeconds)));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.bumenfeld;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-world list of players that can receive a death HUD, as ready-to-use {@link Spectator} handles.
+ *
+ * <p>A world's list is built from its players once, on its first fan-out. After that, join, ready, leave and
+ * disconnect events queue single-player changes from any thread, and the next fan-out on the world thread applies
+ * them: a joining player's {@link AnnouncementServer.HudHolder} is resolved once, a leaving player is dropped. A
+ * player that cannot be resolved yet (still loading) is retried on later fan-outs on its own, without touching the
+ * rest of the world. Like {@link PlayerSpatialIndex}, the handles are only read and changed on their world thread.
+ */
+final class SpectatorRegistry {
+    private static final Spectator[] NONE = new Spectator[0];
+
+    private final AnnouncementServer server;
+    private final ConcurrentMap<String, WorldSpectators> worlds = new ConcurrentHashMap<>();
+
+    SpectatorRegistry(AnnouncementServer server) {
+        this.server = Objects.requireNonNull(server, "server");
+    }
+
+    /**
+     * The player with {@code playerUuid} entered or finished loading in the world named {@code worldName}; it is
+     * resolved before that world's next fan-out. Safe from any thread.
+     */
+    void added(String worldName, UUID playerUuid) {
+        WorldSpectators spectators = worldName == null || playerUuid == null ? null : worlds.get(worldName);
+        if (spectators != null) {
+            spectators.changes.add(new Change(playerUuid, true));
+        }
+    }
+
+    /**
+     * The player with {@code playerUuid} left the world named {@code worldName}. Safe from any thread.
+     */
+    void removed(String worldName, UUID playerUuid) {
+        WorldSpectators spectators = worldName == null || playerUuid == null ? null : worlds.get(worldName);
+        if (spectators != null) {
+            spectators.changes.add(new Change(playerUuid, false));
+        }
+    }
+
+    /**
+     * The player with {@code playerUuid} went offline. Safe from any thread.
+     */
+    void removedEverywhere(UUID playerUuid) {
+        if (playerUuid == null) {
+            return;
+        }
+        Change change = new Change(playerUuid, false);
+        worlds.values().forEach(spectators -> spectators.changes.add(change));
+    }
+
+    /**
+     * Returns the spectators of {@code world}; the array is shared and must not be modified. Must run on the thread
+     * of {@code world}.
+     */
+    Spectator[] spectators(AnnouncementServer.GameWorld world) {
+        return current(world).handles;
+    }
+
+    /**
+     * Returns the handle of the player with {@code playerUuid} in {@code world}, or {@code null} when it cannot
+     * receive a HUD. Must run on the thread of {@code world}.
+     */
+    Spectator find(AnnouncementServer.GameWorld world, UUID playerUuid) {
+        return current(world).byUuid.get(playerUuid);
+    }
+
+    void clear() {
+        worlds.clear();
+    }
+
+    private WorldSpectators current(AnnouncementServer.GameWorld world) {
+        WorldSpectators spectators = worlds.computeIfAbsent(world.name(), ignored -> new WorldSpectators());
+        spectators.update(server, world);
+        return spectators;
+    }
+
+    record Spectator(AnnouncementServer.Recipient recipient, AnnouncementServer.HudHolder holder) {
+    }
+
+    private record Change(UUID playerUuid, boolean added) {
+    }
+
+    private static final class WorldSpectators {
+        private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+        private final Map<UUID, Spectator> byUuid = new HashMap<>();
+        private final Set<UUID> unresolved = new LinkedHashSet<>();
+        private Spectator[] handles = NONE;
+        private boolean built;
+
+        private void update(AnnouncementServer server, AnnouncementServer.GameWorld world) {
+            boolean changed = false;
+            if (!built) {
+                built = true;
+                for (AnnouncementServer.Recipient recipient : world.players()) {
+                    if (resolve(recipient.uuid(), recipient)) {
+                        changed = true;
+                    } else {
+                        unresolved.add(recipient.uuid());
+                    }
+                }
+            }
+            // Changes queued while the world was first built are applied on top; they are at worst redundant.
+            Change change;
+            while ((change = changes.poll()) != null) {
+                changed |= byUuid.remove(change.playerUuid()) != null;
+                if (change.added()) {
+                    unresolved.add(change.playerUuid());
+                } else {
+                    unresolved.remove(change.playerUuid());
+                }
+            }
+            if (!unresolved.isEmpty()) {
+                Iterator<UUID> iterator = unresolved.iterator();
+                while (iterator.hasNext()) {
+                    UUID playerUuid = iterator.next();
+                    AnnouncementServer.Recipient recipient = server.player(playerUuid);
+                    if (recipient == null) {
+                        iterator.remove();
+                    } else if (resolve(playerUuid, recipient)) {
+                        iterator.remove();
+                        changed = true;
+                    }
+                }
+            }
+            if (changed) {
+                handles = byUuid.values().toArray(NONE);
+            }
+        }
+
+        /**
+         * Stores the handle of {@code recipient}; returns {@code false} when it cannot show a HUD yet.
+         */
+        private boolean resolve(UUID playerUuid, AnnouncementServer.Recipient recipient) {
+            AnnouncementServer.HudHolder holder = recipient.hudHolder();
+            if (holder == null) {
+                return false;
+            }
+            byUuid.put(playerUuid, new Spectator(recipient, holder));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bumenfeld;
+
+import com.buuz135.mhud.MultipleHUD;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * {@link AnnouncementServer} backed by the running {@link Universe}: tasks run on the real world threads, players are
+ * reached through their {@link PlayerRef}, notifications go through the {@link NotificationDispatcher} and HUDs are
+ * mounted with MultipleHUD. The handles wrap the server objects, so they compare equal exactly when those are the
+ * same.
+ */
+final class UniverseServer implements AnnouncementServer {
+    private static final String HUD_KEY = "BumenfeldDeathAnnouncer";
+
+    private final NotificationDispatcher notificationDispatcher;
+
+    UniverseServer(NotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = Objects.requireNonNull(notificationDispatcher, "notificationDispatcher");
+    }
+
+    @Override
+    public Collection<GameWorld> worlds() {
+        Universe universe = Universe.get();
+        if (universe == null) {
+            return List.of();
+        }
+        Collection<World> worlds = universe.getWorlds().values();
+        List<GameWorld> loaded = new ArrayList<>(worlds.size());
+        for (World world : worlds) {
+            if (world != null) {
+                loaded.add(new LoadedWorld(world, notificationDispatcher));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public GameWorld world(String name) {
+        Universe universe = Universe.get();
+        World world = universe == null ? null : universe.getWorlds().get(name);
+        return world == null ? null : new LoadedWorld(world, notificationDispatcher);
+    }
+
+    @Override
+    public Recipient player(UUID uuid) {
+        Universe universe = Universe.get();
+        PlayerRef playerRef = uuid == null || universe == null ? null : universe.getPlayer(uuid);
+        return playerRef == null ? null : new OnlinePlayer(playerRef, notificationDispatcher);
+    }
+
+    @Override
+    public void broadcastChat(Message message) {
+        Universe universe = Universe.get();
+        if (universe != null) {
+            universe.sendMessage(message);
+        }
+    }
+
+    @Override
+    public void broadcastNotification(Message title, Message subtitle, String iconPath) {
+        notificationDispatcher.send(title, subtitle, iconPath);
+    }
+
+    @Override
+    public boolean supportsPlayerNotifications() {
+        return notificationDispatcher.supportsPlayerTargets();
+    }
+
+    private record LoadedWorld(World world, NotificationDispatcher notificationDispatcher) implements GameWorld {
+        @Override
+        public String name() {
+            return world.getName();
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            world.execute(task);
+        }
+
+        @Override
+        public List<Recipient> players() {
+            Collection<PlayerRef> playerRefs = world.getPlayerRefs();
+            List<Recipient> players = new ArrayList<>(playerRefs.size());
+            for (PlayerRef playerRef : playerRefs) {
+                if (playerRef != null) {
+                    players.add(new OnlinePlayer(playerRef, notificationDispatcher));
+                }
+            }
+            return players;
+        }
+    }
+
+    private record OnlinePlayer(PlayerRef playerRef, NotificationDispatcher notificationDispatcher)
+        implements Recipient {
+        @Override
+        public UUID uuid() {
+            return playerRef.getUuid();
+        }
+
+        @Override
+        public String username() {
+            return playerRef.getUsername();
+        }
+
+        @Override
+        public String language() {
+            return playerRef.getLanguage();
+        }
+
+        @Override
+        public Vector3d position() {
+            Ref<EntityStore> entityRef = playerRef.getReference();
+            Store<EntityStore> store = entityRef == null ? null : entityRef.getStore();
+            TransformComponent transform = store == null ? null
+                : store.getComponent(entityRef, TransformComponent.getComponentType());
+            return transform == null ? null : transform.getPosition();
+        }
+
+        @Override
+        public void sendMessage(Message message) {
+            playerRef.sendMessage(message);
+        }
+
+        @Override
+        public void sendNotification(Message title, Message subtitle, String iconPath) {
+            notificationDispatcher.sendTo(playerRef.getPacketHandler(), title, subtitle, iconPath);
+        }
+
+        @Override
+        public HudHolder hudHolder() {
+            Ref<EntityStore> entityRef = playerRef.getReference();
+            Store<EntityStore> store = entityRef == null ? null : entityRef.getStore();
+            Player player = store == null ? null : store.getComponent(entityRef, Player.getComponentType());
+            if (player == null || player.getHudManager() == null) {
+                return null;
+            }
+            return new PlayerHud(playerRef, player);
+        }
+    }
+
+    private record PlayerHud(PlayerRef playerRef, Player player) implements HudHolder {
+        @Override
+        public DeathHud mount(DeathHudPayload payload) {
+            MultipleHUD multipleHUD = MultipleHUD.getInstance();
+            if (multipleHUD == null) {
+                return null;
+            }
+            DeathNotificationHud hud = new DeathNotificationHud(playerRef, payload);
+            multipleHUD.setCustomHud(player, playerRef, HUD_KEY, hud);
+            return hud::patch;
+        }
+
+        @Override
+        public void hide() {
+            MultipleHUD multipleHUD = MultipleHUD.getInstance();
+            if (multipleHUD != null) {
+                multipleHUD.hideCustomHud(player, HUD_KEY);
+            }
+        }
+    }
+}